@@ -0,0 +1,119 @@
+package com.nslsolver;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Per-type attempt timeouts derived from observed latency: {@code multiplier} times the observed
+ * {@code quantile}, clamped to {@code [floor, ceiling]}. Until a type has {@code minSamples}
+ * observations its attempts use the ceiling. Attempts that hit an adaptive timeout are retried
+ * like 429/503. Enabled with {@link NSLSolver.Builder#adaptiveTimeout(AdaptiveTimeout)}.
+ */
+public final class AdaptiveTimeout {
+
+    private final double quantile;
+    private final double multiplier;
+    private final Duration floor;
+    private final Duration ceiling;
+    private final int minSamples;
+
+    private AdaptiveTimeout(Builder builder) {
+        if (builder.quantile <= 0 || builder.quantile >= 1) {
+            throw new IllegalArgumentException("quantile must be in (0, 1)");
+        }
+        if (builder.multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be >= 1");
+        }
+        if (builder.ceiling != null && builder.ceiling.compareTo(builder.floor) < 0) {
+            throw new IllegalArgumentException("ceiling must be >= floor");
+        }
+        this.quantile = builder.quantile;
+        this.multiplier = builder.multiplier;
+        this.floor = builder.floor;
+        this.ceiling = builder.ceiling;
+        this.minSamples = builder.minSamples;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getQuantile() { return quantile; }
+    public double getMultiplier() { return multiplier; }
+    public Duration getFloor() { return floor; }
+
+    /** Null means "use the client's static timeout". */
+    public Duration getCeiling() { return ceiling; }
+    public int getMinSamples() { return minSamples; }
+
+    /** The timeout for the next attempt, given that type's sketch and the static ceiling. */
+    Duration timeoutFor(LatencySketch sketch, Duration staticTimeout) {
+        Duration max = ceiling != null ? ceiling : staticTimeout;
+        if (sketch.count() < minSamples) {
+            return max;
+        }
+        long millis = (long) Math.ceil(sketch.quantileMillis(quantile) * multiplier);
+        millis = Math.max(millis, floor.toMillis());
+        millis = Math.min(millis, max.toMillis());
+        return Duration.ofMillis(millis);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveTimeout{" +
+                "quantile=" + quantile +
+                ", multiplier=" + multiplier +
+                ", floor=" + floor +
+                (ceiling != null ? ", ceiling=" + ceiling : "") +
+                ", minSamples=" + minSamples +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private double quantile = 0.999;
+        private double multiplier = 3.0;
+        private Duration floor = Duration.ofSeconds(1);
+        private Duration ceiling;
+        private int minSamples = 50;
+
+        private Builder() {}
+
+        /** Observed latency quantile to scale from. Defaults to 0.999. */
+        public Builder quantile(double quantile) {
+            this.quantile = quantile;
+            return this;
+        }
+
+        /** Factor applied to the quantile. Defaults to 3. */
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /** Lowest timeout ever used. Defaults to 1s. */
+        public Builder floor(Duration floor) {
+            this.floor = Objects.requireNonNull(floor, "floor must not be null");
+            return this;
+        }
+
+        /** Highest timeout ever used. Defaults to the client's static timeout. */
+        public Builder ceiling(Duration ceiling) {
+            this.ceiling = ceiling;
+            return this;
+        }
+
+        /** Observations required per type before adapting. Defaults to 50. */
+        public Builder minSamples(int minSamples) {
+            if (minSamples < 0) {
+                throw new IllegalArgumentException("minSamples must be >= 0");
+            }
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        public AdaptiveTimeout build() {
+            return new AdaptiveTimeout(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.nslsolver;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * An API request sharing its URI and headers with every other request to the same path. Unlike
+ * {@code HttpRequest.Builder.copy().build()}, which copies the header map twice per call, each
+ * call here only allocates this object around its body and timeout.
+ */
+final class ApiRequest extends HttpRequest {
+
+    private final Prototype prototype;
+    private final HttpHeaders headers;
+    private final Optional<BodyPublisher> body;
+    private final Optional<Duration> timeout;
+
+    private ApiRequest(Prototype prototype, HttpHeaders headers, BodyPublisher body, Duration timeout) {
+        this.prototype = prototype;
+        this.headers = headers;
+        this.body = Optional.ofNullable(body);
+        this.timeout = Optional.of(timeout);
+    }
+
+    @Override public Optional<BodyPublisher> bodyPublisher() { return body; }
+    @Override public String method() { return body.isPresent() ? "POST" : "GET"; }
+    @Override public Optional<Duration> timeout() { return timeout; }
+    @Override public boolean expectContinue() { return false; }
+    @Override public URI uri() { return prototype.uri; }
+    @Override public Optional<HttpClient.Version> version() { return Optional.empty(); }
+    @Override public HttpHeaders headers() { return headers; }
+
+    /** URI and headers for one API path, built once per client and never mutated. */
+    static final class Prototype {
+
+        private final URI uri;
+        private final HttpHeaders headers;
+        private final HttpHeaders gzipHeaders;
+
+        Prototype(URI uri, Map<String, List<String>> headers) {
+            this.uri = uri;
+            this.headers = HttpHeaders.of(headers, (name, value) -> true);
+            Map<String, List<String>> gzip = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            gzip.putAll(headers);
+            gzip.put("Content-Encoding", List.of("gzip"));
+            this.gzipHeaders = HttpHeaders.of(gzip, (name, value) -> true);
+        }
+
+        HttpRequest get(Duration timeout) {
+            return new ApiRequest(this, headers, null, timeout);
+        }
+
+        HttpRequest post(byte[] body, Duration timeout) {
+            return new ApiRequest(this, headers, BodyPublishers.ofByteArray(body), timeout);
+        }
+
+        /** {@link #post} with a gzip-compressed body, labelled as such. */
+        HttpRequest postGzipped(byte[] body, Duration timeout) {
+            return new ApiRequest(this, gzipHeaders, BodyPublishers.ofByteArray(body), timeout);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.nslsolver;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.nslsolver.exceptions.*;
+
+import java.io.StringReader;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Outcome of one HTTP attempt. Failed attempts keep the raw error body and headers and carry no
+ * stack trace; the body is only parsed, and an exception only built, by {@link #toException()}
+ * once the failure is actually surfaced to the caller.
+ */
+final class Attempt {
+
+    private final int statusCode;
+    private final String body;
+    private final String requestId;
+    private final Duration retryAfter;
+    private final HttpTimeoutException timeout;
+
+    private Attempt(int statusCode, String body, String requestId, Duration retryAfter,
+                    HttpTimeoutException timeout) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.requestId = requestId;
+        this.retryAfter = retryAfter;
+        this.timeout = timeout;
+    }
+
+    static Attempt of(int statusCode, String body, HttpHeaders headers) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return new Attempt(statusCode, body, null, null, null);
+        }
+        return new Attempt(
+                statusCode,
+                body,
+                headers.firstValue("X-Request-Id").orElse(null),
+                parseRetryAfter(headers.firstValue("Retry-After").orElse(null)),
+                null);
+    }
+
+    /** The attempt got no response within its timeout. */
+    static Attempt timedOut(HttpTimeoutException e) {
+        return new Attempt(0, null, null, null, e);
+    }
+
+    boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /** Same rule as {@link NSLSolverException#isRetryable()}, without building the exception. */
+    boolean isRetryable() {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    boolean isTimeout() {
+        return timeout != null;
+    }
+
+    int getStatusCode() { return statusCode; }
+    String getBody() { return body; }
+
+    /** Server-requested delay before the next attempt, or null. */
+    Duration getRetryAfter() { return retryAfter; }
+
+    NSLSolverException toException() {
+        if (timeout != null) {
+            return new NSLSolverException("Network error: " + timeout.getMessage(), timeout);
+        }
+
+        String message = null;
+        String errorCode = null;
+        String bodyRequestId = null;
+
+        if (body != null && !body.isEmpty()) {
+            try (JsonReader reader = new JsonReader(new StringReader(body))) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() != JsonToken.STRING && reader.peek() != JsonToken.NUMBER) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    switch (name) {
+                        case "error":
+                            message = reader.nextString();
+                            break;
+                        case "message":
+                            if (message == null) {
+                                message = reader.nextString();
+                            } else {
+                                reader.skipValue();
+                            }
+                            break;
+                        case "code":
+                        case "error_code":
+                            errorCode = reader.nextString();
+                            break;
+                        case "request_id":
+                            bodyRequestId = reader.nextString();
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+            } catch (Exception ignored) {
+            }
+        }
+
+        if (message == null) {
+            if (body == null || body.isEmpty()) {
+                message = "HTTP " + statusCode;
+            } else {
+                message = body.length() > 200 ? body.substring(0, 200) : body;
+            }
+        }
+
+        return createException(statusCode, message, errorCode,
+                requestId != null ? requestId : bodyRequestId, retryAfter);
+    }
+
+    private static NSLSolverException createException(
+            int statusCode, String message, String errorCode, String requestId, Duration retryAfter) {
+        switch (statusCode) {
+            case 400:
+                return new SolveException(400, message, errorCode, requestId, retryAfter);
+            case 401:
+                return new AuthenticationException(message, errorCode, requestId, retryAfter);
+            case 402:
+                return new InsufficientBalanceException(message, errorCode, requestId, retryAfter);
+            case 403:
+                return new TypeNotAllowedException(message, errorCode, requestId, retryAfter);
+            case 429:
+                return new RateLimitException(message, errorCode, requestId, retryAfter);
+            case 503:
+                return new SolveException(503, message, errorCode, requestId, retryAfter);
+            default:
+                return new NSLSolverException(statusCode, message, errorCode, requestId, retryAfter);
+        }
+    }
+
+    /** Accepts both delta-seconds and HTTP-date forms. Returns null if absent or unparseable. */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds >= 0 ? Duration.ofSeconds(seconds) : null;
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
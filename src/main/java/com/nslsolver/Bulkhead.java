@@ -0,0 +1,155 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.BulkheadFullException;
+import com.nslsolver.exceptions.NSLSolverException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-flight count plus a bounded wait queue for one {@link RequestType}. Limits can be
+ * changed while in use; calls already admitted always run to completion.
+ *
+ * <p>Each queued call is a pending future that a {@link #release()} completes in arrival order, so
+ * an async caller can wait for its slot without holding a thread, and a blocking caller simply
+ * waits on the same future.
+ */
+final class Bulkhead {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+    private final RequestType type;
+    private int maxConcurrent;
+    private int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int inFlight;
+    private long rejected;
+
+    Bulkhead(RequestType type, BulkheadConfig config) {
+        this.type = type;
+        this.maxConcurrent = config.getMaxConcurrent();
+        this.maxQueue = config.getMaxQueue();
+        this.maxWaitNanos = config.getMaxWait() != null ? config.getMaxWait().toNanos() : Long.MAX_VALUE;
+    }
+
+    /** Takes a slot, waiting in the queue if there is room. Pair with {@link #release()}. */
+    void acquire() throws NSLSolverException {
+        CompletableFuture<Void> slot = acquireAsync();
+        try {
+            slot.get();
+        } catch (ExecutionException e) {
+            throw (BulkheadFullException) e.getCause();
+        } catch (InterruptedException e) {
+            if (!slot.cancel(false) && !slot.isCompletedExceptionally()) {
+                // the slot was handed to us just as we gave up on it
+                release();
+            }
+            Thread.currentThread().interrupt();
+            throw new NSLSolverException("Interrupted while waiting for " + type.key() + " bulkhead", e);
+        }
+    }
+
+    /**
+     * Returns a future that completes once a slot is held, or fails with a
+     * {@link BulkheadFullException} if the queue is full or the wait times out. Pair a successful
+     * one with {@link #release()}.
+     */
+    CompletableFuture<Void> acquireAsync() {
+        CompletableFuture<Void> waiter;
+        synchronized (this) {
+            // nobody jumps the queue while calls are waiting in it
+            if (inFlight < maxConcurrent && waiters.isEmpty()) {
+                inFlight++;
+                return ADMITTED;
+            }
+            if (waiters.size() >= maxQueue) {
+                rejected++;
+                return CompletableFuture.failedFuture(new BulkheadFullException(type.key(), type.key()
+                        + " bulkhead full (" + maxConcurrent + " in flight, " + waiters.size() + " queued)"));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+        }
+
+        QueueWaitEvent event = Jfr.AVAILABLE ? new QueueWaitEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        waiter.whenComplete((admitted, failure) -> {
+            if (failure != null) {
+                // timed out or cancelled: give up the place in the queue
+                synchronized (this) {
+                    waiters.remove(waiter);
+                }
+            }
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.type = type.key();
+                    event.rejected = failure != null;
+                    event.commit();
+                }
+            }
+        });
+        if (maxWaitNanos != Long.MAX_VALUE) {
+            CompletableFuture.delayedExecutor(maxWaitNanos, TimeUnit.NANOSECONDS).execute(() -> expire(waiter));
+        }
+        return waiter;
+    }
+
+    private void expire(CompletableFuture<Void> waiter) {
+        synchronized (this) {
+            // once it leaves the queue no release can hand it a slot
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+            rejected++;
+        }
+        waiter.completeExceptionally(new BulkheadFullException(type.key(), type.key()
+                + " bulkhead wait timed out after " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms"));
+    }
+
+    void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        admitWaiting();
+    }
+
+    /** Applies new limits. Lowering them admits nothing new until enough calls finish. */
+    void resize(int maxConcurrent, int maxQueue) {
+        synchronized (this) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+        }
+        admitWaiting();
+    }
+
+    /** Hands free slots to queued calls, completing their futures outside the lock. */
+    private void admitWaiting() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                if (inFlight >= maxConcurrent || waiters.isEmpty()) {
+                    return;
+                }
+                next = waiters.poll();
+                inFlight++;
+            }
+            if (!next.complete(null)) {
+                // it timed out or was cancelled meanwhile; offer the slot to the one after
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    synchronized BulkheadStats stats() {
+        return new BulkheadStats(type.key(), maxConcurrent, inFlight, waiters.size(), rejected);
+    }
+}
@@ -0,0 +1,90 @@
+package com.nslsolver;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Concurrency limits for one request type, so a slow solver type can't starve the others.
+ * Registered with {@link NSLSolver.Builder#bulkhead(String, BulkheadConfig)}.
+ */
+public final class BulkheadConfig {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Executor executor;
+
+    private BulkheadConfig(Builder builder) {
+        if (builder.maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be > 0");
+        }
+        this.maxConcurrent = builder.maxConcurrent;
+        this.maxQueue = builder.maxQueue;
+        this.maxWait = builder.maxWait;
+        this.executor = builder.executor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getMaxQueue() { return maxQueue; }
+    public Duration getMaxWait() { return maxWait; }
+    public Executor getExecutor() { return executor; }
+
+    @Override
+    public String toString() {
+        return "BulkheadConfig{" +
+                "maxConcurrent=" + maxConcurrent +
+                ", maxQueue=" + maxQueue +
+                (maxWait != null ? ", maxWait=" + maxWait : "") +
+                (executor != null ? ", executor=" + executor : "") +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private int maxConcurrent;
+        private int maxQueue;
+        private Duration maxWait;
+        private Executor executor;
+
+        private Builder() {}
+
+        /** Required. Max requests of this type in flight at once, retries included. */
+        public Builder maxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /** Callers allowed to wait for a slot once all are taken. Defaults to 0: reject immediately. */
+        public Builder maxQueue(int maxQueue) {
+            if (maxQueue < 0) {
+                throw new IllegalArgumentException("maxQueue must be >= 0");
+            }
+            this.maxQueue = maxQueue;
+            return this;
+        }
+
+        /** Optional cap on how long a queued caller waits for a slot. Unbounded by default. */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Optional executor for the async methods of this type, instead of the common pool.
+         * Async calls wait for their slot without a thread and reach the executor only once
+         * admitted, so it needs at most {@code maxConcurrent} threads for this type.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BulkheadConfig build() {
+            return new BulkheadConfig(this);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.nslsolver;
+
+/** Point-in-time view of one bulkhead. See {@link NSLSolver#getBulkheadStats(String)}. */
+public final class BulkheadStats {
+
+    private final String requestType;
+    private final int maxConcurrent;
+    private final int inFlight;
+    private final int queued;
+    private final long rejected;
+
+    BulkheadStats(String requestType, int maxConcurrent, int inFlight, int queued, long rejected) {
+        this.requestType = requestType;
+        this.maxConcurrent = maxConcurrent;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.rejected = rejected;
+    }
+
+    public String getRequestType() { return requestType; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getInFlight() { return inFlight; }
+    public int getQueued() { return queued; }
+
+    /** Calls rejected since the client was built, because the queue was full or the wait timed out. */
+    public long getRejected() { return rejected; }
+
+    @Override
+    public String toString() {
+        return "BulkheadStats{" +
+                "requestType='" + requestType + '\'' +
+                ", maxConcurrent=" + maxConcurrent +
+                ", inFlight=" + inFlight +
+                ", queued=" + queued +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
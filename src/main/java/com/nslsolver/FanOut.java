@@ -0,0 +1,183 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.AuthenticationException;
+import com.nslsolver.exceptions.InsufficientBalanceException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a batch of {@link SolveTask}s with at most {@code maxConcurrency} in flight. Once the
+ * returned future completes -- success, failure or caller cancellation -- no further tasks start
+ * and every running task is interrupted. That ends a retry backoff at once. An HTTP call in
+ * progress is aborted on Java 16+; on Java 11 to 15 the task returns, but HttpClient lets the
+ * exchange run to completion in the background and discards the response.
+ *
+ * <p>The outcome is decided under the lock, but the future is completed after releasing it, so
+ * callers' dependent stages never run while holding it.
+ */
+final class FanOut<T> {
+
+    private final NSLSolver solver;
+    private final List<? extends SolveTask<? extends T>> tasks;
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final boolean any;
+
+    private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+    private final Map<Integer, Future<?>> running = new HashMap<>();
+    private final Object[] values;
+    private int nextIndex;
+    private int finished;
+    private boolean decided;
+    private Throwable firstFailure;
+
+    private FanOut(NSLSolver solver, List<? extends SolveTask<? extends T>> tasks,
+                   ExecutorService executor, int maxConcurrency, boolean any) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0");
+        }
+        this.solver = solver;
+        this.tasks = new ArrayList<>(tasks);
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.any = any;
+        this.values = new Object[this.tasks.size()];
+        result.whenComplete((r, t) -> cancelRunning());
+    }
+
+    /** Completes with every result in task order, or with the first failure. */
+    static <T> CompletableFuture<List<T>> all(NSLSolver solver, List<? extends SolveTask<? extends T>> tasks,
+                                              ExecutorService executor, int maxConcurrency) {
+        FanOut<T> fanOut = new FanOut<>(solver, tasks, executor, maxConcurrency, false);
+        fanOut.start();
+        return fanOut.result;
+    }
+
+    /**
+     * Completes with the first successful result. Ordinary failures are tolerated until every task
+     * has failed; authentication and balance errors abort the whole batch immediately.
+     */
+    static <T> CompletableFuture<T> any(NSLSolver solver, List<? extends SolveTask<? extends T>> tasks,
+                                        ExecutorService executor, int maxConcurrency) {
+        FanOut<T> fanOut = new FanOut<>(solver, tasks, executor, maxConcurrency, true);
+        CompletableFuture<T> first = new CompletableFuture<>();
+        fanOut.result.whenComplete((list, t) -> {
+            if (t != null) {
+                first.completeExceptionally(t);
+            } else {
+                first.complete(list.get(0));
+            }
+        });
+        first.whenComplete((r, t) -> fanOut.result.cancel(true));
+        fanOut.start();
+        return first;
+    }
+
+    private void start() {
+        if (tasks.isEmpty()) {
+            if (any) {
+                result.completeExceptionally(new IllegalArgumentException("solveAny requires at least one task"));
+            } else {
+                result.complete(new ArrayList<>());
+            }
+            return;
+        }
+        synchronized (this) {
+            while (running.size() < maxConcurrency && nextIndex < tasks.size()) {
+                launch(nextIndex++);
+            }
+        }
+    }
+
+    /** Must hold the lock. */
+    private void launch(int index) {
+        running.put(index, executor.submit(() -> run(index)));
+    }
+
+    private void run(int index) {
+        T value;
+        try {
+            value = tasks.get(index).solve(solver);
+        } catch (Throwable t) {
+            onFailure(index, t);
+            return;
+        }
+        onSuccess(index, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onSuccess(int index, T value) {
+        List<T> outcome;
+        synchronized (this) {
+            running.remove(index);
+            if (decided || result.isDone()) {
+                return;
+            }
+            if (any) {
+                outcome = new ArrayList<>(1);
+                outcome.add(value);
+            } else {
+                values[index] = value;
+                if (++finished < tasks.size()) {
+                    launchNext();
+                    return;
+                }
+                outcome = (List<T>) Arrays.asList(values);
+            }
+            decided = true;
+        }
+        result.complete(outcome);
+    }
+
+    private void onFailure(int index, Throwable t) {
+        Throwable outcome;
+        synchronized (this) {
+            running.remove(index);
+            if (decided || result.isDone()) {
+                return;
+            }
+            if (!any || isFatal(t)) {
+                outcome = t;
+            } else {
+                if (firstFailure == null) {
+                    firstFailure = t;
+                } else if (firstFailure != t) {
+                    firstFailure.addSuppressed(t);
+                }
+                if (++finished < tasks.size()) {
+                    launchNext();
+                    return;
+                }
+                outcome = firstFailure;
+            }
+            decided = true;
+        }
+        result.completeExceptionally(outcome);
+    }
+
+    /** Must hold the lock. */
+    private void launchNext() {
+        if (nextIndex < tasks.size()) {
+            launch(nextIndex++);
+        }
+    }
+
+    private synchronized void cancelRunning() {
+        nextIndex = tasks.size();
+        for (Future<?> future : running.values()) {
+            future.cancel(true);
+        }
+        running.clear();
+    }
+
+    private static boolean isFatal(Throwable t) {
+        return t instanceof AuthenticationException || t instanceof InsufficientBalanceException;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nslsolver;
+
+/**
+ * Whether the {@code jdk.jfr} module is present. Runtimes built with jlink may leave it out, and
+ * the event classes can't even load there, so they are only touched when this is true.
+ */
+final class Jfr {
+
+    static final boolean AVAILABLE = isAvailable();
+
+    private Jfr() {}
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Jfr.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
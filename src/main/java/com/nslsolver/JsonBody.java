@@ -0,0 +1,183 @@
+package com.nslsolver;
+
+/**
+ * Builds a {@code /solve} request body on top of a pre-encoded {@link SolveTemplate} prefix.
+ * Fields are only recorded as they are added; {@link #finish()} measures them, allocates the body
+ * once at its exact length, copies the prefix in and encodes the fields straight to UTF-8 after it.
+ */
+final class JsonBody {
+
+    // the most any solve type sends per call
+    private static final int MAX_FIELDS = 8;
+
+    private final byte[] prefix;
+    private final String[] names = new String[MAX_FIELDS];
+    private final String[] values = new String[MAX_FIELDS];
+    private final int[] numbers = new int[MAX_FIELDS];
+    private int count;
+
+    JsonBody(byte[] prefix) {
+        this.prefix = prefix;
+    }
+
+    /** Appends a string field. Null values are skipped. */
+    JsonBody field(String name, String value) {
+        if (value != null) {
+            names[count] = name;
+            values[count++] = value;
+        }
+        return this;
+    }
+
+    JsonBody field(String name, int value) {
+        names[count] = name;
+        numbers[count++] = value;
+        return this;
+    }
+
+    /** Closes the object and returns the whole body. */
+    byte[] finish() {
+        int length = prefix.length + 1;
+        for (int i = 0; i < count; i++) {
+            length += 2 + quotedLength(names[i]);
+            length += values[i] != null ? quotedLength(values[i]) : decimalLength(numbers[i]);
+        }
+
+        byte[] body = new byte[length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        int pos = prefix.length;
+        for (int i = 0; i < count; i++) {
+            body[pos++] = ',';
+            pos = putQuoted(body, pos, names[i]);
+            body[pos++] = ':';
+            pos = values[i] != null ? putQuoted(body, pos, values[i]) : putDecimal(body, pos, numbers[i]);
+        }
+        body[pos] = '}';
+        return body;
+    }
+
+    static void appendQuoted(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape = escape(c);
+            if (escape != null) {
+                sb.append(escape);
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /** UTF-8 length of {@code value} quoted and escaped as {@link #putQuoted} writes it. */
+    private static int quotedLength(String value) {
+        int length = 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (escape(c) != null) {
+                length += 2;
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                length += 6;
+            } else if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (!Character.isSurrogate(c)) {
+                length += 3;
+            } else if (isPairAt(value, i)) {
+                length += 4;
+                i++;
+            } else {
+                length += 1; // a lone surrogate becomes '?', as String.getBytes(UTF_8) does
+            }
+        }
+        return length;
+    }
+
+    private static int putQuoted(byte[] dst, int pos, String value) {
+        dst[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape = escape(c);
+            if (escape != null) {
+                dst[pos++] = '\\';
+                dst[pos++] = (byte) escape.charAt(1);
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                dst[pos++] = '\\';
+                dst[pos++] = 'u';
+                for (int shift = 12; shift >= 0; shift -= 4) {
+                    dst[pos++] = (byte) Character.forDigit((c >> shift) & 0xf, 16);
+                }
+            } else if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xc0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (!Character.isSurrogate(c)) {
+                dst[pos++] = (byte) (0xe0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                dst[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (isPairAt(value, i)) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                dst[pos++] = (byte) (0xf0 | (cp >> 18));
+                dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                dst[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                dst[pos++] = '?';
+            }
+        }
+        dst[pos++] = '"';
+        return pos;
+    }
+
+    private static boolean isPairAt(String value, int i) {
+        return Character.isHighSurrogate(value.charAt(i)) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1));
+    }
+
+    /** The two-character escape for {@code c}, or null if it has none. */
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                return null;
+        }
+    }
+
+    private static int decimalLength(int value) {
+        long v = Math.abs((long) value);
+        int length = value < 0 ? 2 : 1;
+        while (v >= 10) {
+            v /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    private static int putDecimal(byte[] dst, int pos, int value) {
+        int end = pos + decimalLength(value);
+        long v = Math.abs((long) value);
+        int i = end;
+        do {
+            dst[--i] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            dst[pos] = '-';
+        }
+        return end;
+    }
+}
@@ -0,0 +1,93 @@
+package com.nslsolver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free streaming latency histogram with log-spaced buckets (~5% relative error) from 1ms to
+ * about 20 minutes. Once {@value #DECAY_THRESHOLD} samples accumulate, every bucket is halved so
+ * quantiles follow recent traffic instead of the whole lifetime of the client.
+ */
+final class LatencySketch {
+
+    private static final double GROWTH = 1.05;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 290;
+    private static final long DECAY_THRESHOLD = 10_000;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong lifetimeCount = new AtomicLong();
+    private final AtomicLong lifetimeSumMs = new AtomicLong();
+
+    void record(long millis) {
+        long ms = Math.max(1, millis);
+        counts.incrementAndGet(bucket(ms));
+        lifetimeCount.incrementAndGet();
+        lifetimeSumMs.addAndGet(ms);
+        if (total.incrementAndGet() >= DECAY_THRESHOLD) {
+            decay();
+        }
+    }
+
+    /** Samples currently weighted in the sketch (decays over time). */
+    long count() {
+        return total.get();
+    }
+
+    /** Samples recorded since creation. */
+    long lifetimeCount() {
+        return lifetimeCount.get();
+    }
+
+    /** Mean over every sample since creation, in ms; 0 when empty. */
+    double lifetimeMeanMillis() {
+        long count = lifetimeCount.get();
+        return count == 0 ? 0 : (double) lifetimeSumMs.get() / count;
+    }
+
+    /** Upper bound of the bucket holding quantile {@code q}, in ms; 0 when empty. */
+    long quantileMillis(double q) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private synchronized void decay() {
+        if (total.get() < DECAY_THRESHOLD) {
+            return;
+        }
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            long halved = c / 2;
+            counts.addAndGet(i, halved - c);
+            remaining += halved;
+        }
+        total.set(remaining);
+    }
+
+    private static int bucket(long ms) {
+        int index = (int) (Math.log(ms) / LOG_GROWTH);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) Math.ceil(Math.pow(GROWTH, bucket + 1));
+    }
+}
@@ -8,20 +8,43 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.nslsolver.exceptions.*;
 import com.nslsolver.models.*;
+import com.nslsolver.store.ResultStore;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
 
 /** Client for the NSLSolver captcha solving API. Supports Turnstile, Challenge, and Kasada solving. */
 public final class NSLSolver implements AutoCloseable {
@@ -31,15 +54,46 @@ public final class NSLSolver implements AutoCloseable {
     private static final int DEFAULT_MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 1000;
     private static final double BACKOFF_MULTIPLIER = 2.0;
+    private static final long DEFAULT_MAX_RETRY_AFTER_MS = 60_000;
+    private static final Map<String, Duration> DEFAULT_RESULT_TTLS = Map.of(
+            "turnstile", Duration.ofSeconds(300),
+            "challenge", Duration.ofMinutes(30),
+            "kasada", Duration.ofMinutes(10));
+    private static final Duration DEFAULT_MIN_STORED_LIFETIME = Duration.ofSeconds(30);
     private static final String SDK_VERSION = "1.1.0";
     private static final String USER_AGENT = "nslsolver-java/" + SDK_VERSION;
 
     private final String apiKey;
     private final String baseUrl;
-    private final Duration timeout;
-    private final int maxRetries;
+    // tunable at runtime through NSLSolverMXBean
+    private volatile Duration timeout;
+    private volatile int maxRetries;
+    private volatile long maxRetryAfterMs = DEFAULT_MAX_RETRY_AFTER_MS;
+    private final boolean compression;
+    private final int requestCompressionThreshold;
+    private final Map<String, Duration> resultTtls;
+    private final AtomicReferenceArray<Bulkhead> bulkheads = new AtomicReferenceArray<>(RequestType.values().length);
+    private final Map<RequestType, RequestCounters> counters = new EnumMap<>(RequestType.class);
+    private final Map<RequestType, Executor> asyncExecutors = new EnumMap<>(RequestType.class);
+    private final Map<RequestType, LatencySketch> latencies = new EnumMap<>(RequestType.class);
+    private final AdaptiveTimeout adaptiveTimeout;
+    private final ResultStore resultStore;
+    private final Duration minStoredLifetime;
+    // raised by keepFresh while it refreshes, so a refresh can't pick up the result it is replacing
+    private final ThreadLocal<Duration> storeMargin = new ThreadLocal<>();
+    // set while an async call runs on a bulkhead slot it acquired before being dispatched
+    private final ThreadLocal<Bulkhead> admittedBy = new ThreadLocal<>();
+    private final TrafficCapture capture;
+    private final ObjectName mbeanName;
     private final HttpClient httpClient;
     private final Gson gson;
+    private final ApiRequest.Prototype solveRequest;
+    private final ApiRequest.Prototype balanceRequest;
+    private final ExecutorService fanOutExecutor = Executors.newCachedThreadPool(daemonThreads("nslsolver-fanout"));
+    private final ScheduledExecutorService refreshScheduler =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("nslsolver-refresh"));
+    private final SolveTemplate.Cache<String> turnstileTemplates = new SolveTemplate.Cache<>(SolveTemplate::turnstile);
+    private final SolveTemplate.Cache<KasadaConfig> kasadaTemplates = new SolveTemplate.Cache<>(SolveTemplate::kasada);
 
     public NSLSolver(String apiKey) {
         this(new Builder(apiKey));
@@ -49,12 +103,39 @@ public final class NSLSolver implements AutoCloseable {
         this.apiKey = Objects.requireNonNull(builder.apiKey, "apiKey is required");
         this.baseUrl = builder.baseUrl != null ? builder.baseUrl : DEFAULT_BASE_URL;
         this.timeout = builder.timeout != null ? builder.timeout : DEFAULT_TIMEOUT;
-        this.maxRetries = builder.maxRetries > 0 ? builder.maxRetries : DEFAULT_MAX_RETRIES;
+        this.maxRetries = builder.maxRetries;
+        this.compression = builder.compression;
+        this.requestCompressionThreshold = builder.requestCompressionThreshold;
+        this.resultTtls = new HashMap<>(DEFAULT_RESULT_TTLS);
+        this.resultTtls.putAll(builder.resultTtls);
+        this.adaptiveTimeout = builder.adaptiveTimeout;
+        this.resultStore = builder.resultStore;
+        this.minStoredLifetime = builder.minStoredLifetime != null ? builder.minStoredLifetime : DEFAULT_MIN_STORED_LIFETIME;
+        this.capture = builder.capture;
+        for (RequestType type : RequestType.values()) {
+            latencies.put(type, new LatencySketch());
+            counters.put(type, new RequestCounters());
+        }
+        for (Map.Entry<RequestType, BulkheadConfig> entry : builder.bulkheads.entrySet()) {
+            bulkheads.set(entry.getKey().ordinal(), new Bulkhead(entry.getKey(), entry.getValue()));
+            if (entry.getValue().getExecutor() != null) {
+                asyncExecutors.put(entry.getKey(), entry.getValue().getExecutor());
+            }
+        }
         this.gson = new GsonBuilder().create();
 
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
                 .build();
+
+        this.solveRequest = newRequestPrototype("/solve");
+        this.balanceRequest = newRequestPrototype("/balance");
+
+        this.mbeanName = builder.jmxName != null ? registerMBean(builder.jmxName) : null;
+
+        if (builder.prewarm > 0) {
+            warmUp(builder.prewarm);
+        }
     }
 
     public static Builder builder(String apiKey) {
@@ -74,32 +155,20 @@ public final class NSLSolver implements AutoCloseable {
     public TurnstileResult solveTurnstile(TurnstileParams params) throws NSLSolverException {
         Objects.requireNonNull(params, "params must not be null");
 
-        JsonObject body = new JsonObject();
-        body.addProperty("type", "turnstile");
-        body.addProperty("site_key", params.getSiteKey());
-        body.addProperty("url", params.getUrl());
+        byte[] body = turnstileTemplates.get(params.getSiteKey()).begin()
+                .field("url", params.getUrl())
+                .field("action", params.getAction())
+                .field("cdata", params.getCdata())
+                .field("proxy", params.getProxy())
+                .field("user_agent", params.getUserAgent())
+                .finish();
 
-        if (params.getAction() != null) {
-            body.addProperty("action", params.getAction());
-        }
-        if (params.getCdata() != null) {
-            body.addProperty("cdata", params.getCdata());
-        }
-        if (params.getProxy() != null) {
-            body.addProperty("proxy", params.getProxy());
-        }
-        if (params.getUserAgent() != null) {
-            body.addProperty("user_agent", params.getUserAgent());
-        }
-
-        String responseBody = executeWithRetry("POST", "/solve", body.toString());
+        Instant requestedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        String responseBody = executeWithRetry(RequestType.TURNSTILE, solveRequest, body);
+        Duration latency = Duration.ofNanos(System.nanoTime() - startNanos);
 
-        JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
-        return new TurnstileResult(
-                getStringOrNull(json, "token"),
-                getStringOrNull(json, "type"),
-                json.has("success") && json.get("success").getAsBoolean()
-        );
+        return parseTurnstileResult(responseBody, requestedAt, latency);
     }
 
     /**
@@ -113,33 +182,31 @@ public final class NSLSolver implements AutoCloseable {
     public ChallengeResult solveChallenge(ChallengeParams params) throws NSLSolverException {
         Objects.requireNonNull(params, "params must not be null");
 
-        JsonObject body = new JsonObject();
-        body.addProperty("type", "challenge");
-        body.addProperty("url", params.getUrl());
-        body.addProperty("proxy", params.getProxy());
-
-        if (params.getUserAgent() != null) {
-            body.addProperty("user_agent", params.getUserAgent());
+        String storeKey = resultStore != null ? ResultCodec.challengeKey(params) : null;
+        if (storeKey != null) {
+            String stored = storeGet(storeKey);
+            ChallengeResult cached = stored != null ? ResultCodec.decodeChallenge(stored) : null;
+            if (isUsable(cached)) {
+                return cached;
+            }
         }
 
-        String responseBody = executeWithRetry("POST", "/solve", body.toString());
+        byte[] body = SolveTemplate.CHALLENGE.begin()
+                .field("url", params.getUrl())
+                .field("proxy", params.getProxy())
+                .field("user_agent", params.getUserAgent())
+                .finish();
 
-        JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
+        Instant requestedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        String responseBody = executeWithRetry(RequestType.CHALLENGE, solveRequest, body);
+        Duration latency = Duration.ofNanos(System.nanoTime() - startNanos);
 
-        Map<String, String> cookies = new HashMap<>();
-        if (json.has("cookies") && json.get("cookies").isJsonObject()) {
-            JsonObject cookiesJson = json.getAsJsonObject("cookies");
-            for (Map.Entry<String, JsonElement> entry : cookiesJson.entrySet()) {
-                cookies.put(entry.getKey(), entry.getValue().getAsString());
-            }
+        ChallengeResult result = parseChallengeResult(responseBody, requestedAt, latency);
+        if (storeKey != null && result.isSuccess()) {
+            storePut(storeKey, ResultCodec.encode(result), result.getExpiresAt());
         }
-
-        return new ChallengeResult(
-                cookies,
-                getStringOrNull(json, "user_agent"),
-                getStringOrNull(json, "type"),
-                json.has("success") && json.get("success").getAsBoolean()
-        );
+        return result;
     }
 
     /**
@@ -153,29 +220,162 @@ public final class NSLSolver implements AutoCloseable {
     public KasadaResult solveKasada(KasadaParams params) throws NSLSolverException {
         Objects.requireNonNull(params, "params must not be null");
 
-        KasadaConfig config = params.getKasadaConfig();
+        String storeKey = resultStore != null ? ResultCodec.kasadaKey(params) : null;
+        if (storeKey != null) {
+            String stored = storeGet(storeKey);
+            KasadaResult cached = stored != null ? ResultCodec.decodeKasada(stored) : null;
+            if (isUsable(cached)) {
+                return cached;
+            }
+        }
 
-        JsonObject configJson = new JsonObject();
-        configJson.addProperty("p_js_path", config.getPJsPath());
-        configJson.addProperty("fp_host", config.getFpHost());
-        configJson.addProperty("tl_host", config.getTlHost());
-        if (config.getCdConstant() != null) {
-            configJson.addProperty("cd_constant", config.getCdConstant());
+        byte[] body = kasadaTemplates.get(params.getKasadaConfig()).begin()
+                .field("url", params.getUrl())
+                .field("user_agent", params.getUserAgent())
+                .field("ua_version", params.getUaVersion())
+                .field("proxy", params.getProxy())
+                .finish();
+
+        Instant requestedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        String responseBody = executeWithRetry(RequestType.KASADA, solveRequest, body);
+        Duration latency = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        KasadaResult result = parseKasadaResult(responseBody, requestedAt, latency);
+        if (storeKey != null && result.isSuccess()) {
+            storePut(storeKey, ResultCodec.encode(result), result.getExpiresAt());
         }
+        return result;
+    }
+
+    /**
+     * Drops the stored result for these params from the {@link ResultStore}, so the next
+     * {@link #solveChallenge} solves afresh. Call it when the target rejects the clearance.
+     * No-op without a store.
+     */
+    public void invalidate(ChallengeParams params) {
+        Objects.requireNonNull(params, "params must not be null");
+        if (resultStore != null) {
+            storeRemove(ResultCodec.challengeKey(params));
+        }
+    }
+
+    /** Same as {@link #invalidate(ChallengeParams)}, for {@link #solveKasada}. */
+    public void invalidate(KasadaParams params) {
+        Objects.requireNonNull(params, "params must not be null");
+        if (resultStore != null) {
+            storeRemove(ResultCodec.kasadaKey(params));
+        }
+    }
+
+    /**
+     * Returns the current account balance and limits.
+     * @throws AuthenticationException if the API key is invalid (401)
+     */
+    public BalanceResult getBalance() throws NSLSolverException {
+        String responseBody = executeWithRetry(RequestType.BALANCE, balanceRequest, null);
+        return parseBalanceResult(responseBody);
+    }
+
+    // --- Warm-up ---
+
+    /**
+     * Opens connections and loads the request/response code paths ahead of the first solve, so it
+     * doesn't pay DNS, TCP, TLS, HTTP/2 setup and class loading on the critical path. Sends
+     * {@code connections} concurrent {@code /balance} probes (free, and any HTTP response -- even
+     * 401 -- counts) and waits for them. Best effort: it never fails because of network errors or
+     * timeouts, which only lower the count it returns.
+     *
+     * @return how many probes got an HTTP response
+     * @throws IllegalArgumentException if {@code connections} is not positive
+     */
+    public int warmUp(int connections) {
+        if (connections <= 0) {
+            throw new IllegalArgumentException("connections must be > 0");
+        }
+        warmUpCodecs();
+
+        HttpRequest probe = balanceRequest.get(timeout);
+        List<CompletableFuture<HttpResponse<String>>> probes = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            probes.add(httpClient.sendAsync(probe, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        int answered = 0;
+        for (CompletableFuture<HttpResponse<String>> pending : probes) {
+            try {
+                pending.join();
+                answered++;
+            } catch (CompletionException | CancellationException ignored) {
+            }
+        }
+        return answered;
+    }
+
+    /** {@link #warmUp(int)} with a single probe. */
+    public int warmUp() {
+        return warmUp(1);
+    }
+
+    /**
+     * Runs canned responses through the real encoders and parsers, and touches the JFR events, so
+     * their classes load and link.
+     */
+    private void warmUpCodecs() {
+        Instant now = Instant.now();
+        SolveTemplate.turnstile("warmup").begin().field("url", "https://warmup").field("ua_version", 1).finish();
+        parseTurnstileResult("{\"success\":true,\"type\":\"turnstile\",\"token\":\"warmup\"}", now, Duration.ZERO);
+        parseChallengeResult("{\"success\":true,\"type\":\"challenge\",\"cookies\":{\"cf_clearance\":\"warmup\"},"
+                + "\"user_agent\":\"warmup\"}", now, Duration.ZERO);
+        parseKasadaResult("{\"success\":true,\"type\":\"kasada\",\"headers\":{\"x-kpsdk-ct\":\"warmup\"}}", now, Duration.ZERO);
+        parseBalanceResult("{\"balance\":0,\"max_threads\":0,\"allowed_types\":[\"turnstile\"]}");
+        Attempt.of(429, "{\"error\":\"warmup\",\"code\":\"warmup\"}", HttpHeaders.of(Map.of(), (k, v) -> true))
+                .toException();
+        if (Jfr.AVAILABLE) {
+            // JFR registers an event class on first use, which takes longer than a fast solve
+            new SolveRequestEvent();
+            new RetryBackoffEvent();
+            new QueueWaitEvent();
+        }
+    }
+
+    // --- Response parsing ---
+
+    private TurnstileResult parseTurnstileResult(String responseBody, Instant requestedAt, Duration latency) {
+        JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
+        return new TurnstileResult(
+                getStringOrNull(json, "token"),
+                getStringOrNull(json, "type"),
+                json.has("success") && json.get("success").getAsBoolean(),
+                Instant.now(),
+                latency,
+                requestedAt.plus(resultTtl("turnstile"))
+        );
+    }
 
-        JsonObject body = new JsonObject();
-        body.addProperty("type", "kasada");
-        body.addProperty("url", params.getUrl());
-        body.addProperty("user_agent", params.getUserAgent());
-        body.addProperty("ua_version", params.getUaVersion());
-        body.add("kasada_config", configJson);
+    private ChallengeResult parseChallengeResult(String responseBody, Instant requestedAt, Duration latency) {
+        JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
 
-        if (params.getProxy() != null) {
-            body.addProperty("proxy", params.getProxy());
+        Map<String, String> cookies = new HashMap<>();
+        if (json.has("cookies") && json.get("cookies").isJsonObject()) {
+            JsonObject cookiesJson = json.getAsJsonObject("cookies");
+            for (Map.Entry<String, JsonElement> entry : cookiesJson.entrySet()) {
+                cookies.put(entry.getKey(), entry.getValue().getAsString());
+            }
         }
 
-        String responseBody = executeWithRetry("POST", "/solve", body.toString());
+        return new ChallengeResult(
+                cookies,
+                getStringOrNull(json, "user_agent"),
+                getStringOrNull(json, "type"),
+                json.has("success") && json.get("success").getAsBoolean(),
+                Instant.now(),
+                latency,
+                requestedAt.plus(resultTtl("challenge"))
+        );
+    }
 
+    private KasadaResult parseKasadaResult(String responseBody, Instant requestedAt, Duration latency) {
         JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
 
         Map<String, String> headers = new HashMap<>();
@@ -189,17 +389,14 @@ public final class NSLSolver implements AutoCloseable {
         return new KasadaResult(
                 headers,
                 getStringOrNull(json, "type"),
-                json.has("success") && json.get("success").getAsBoolean()
+                json.has("success") && json.get("success").getAsBoolean(),
+                Instant.now(),
+                latency,
+                requestedAt.plus(resultTtl("kasada"))
         );
     }
 
-    /**
-     * Returns the current account balance and limits.
-     * @throws AuthenticationException if the API key is invalid (401)
-     */
-    public BalanceResult getBalance() throws NSLSolverException {
-        String responseBody = executeWithRetry("GET", "/balance", null);
-
+    private static BalanceResult parseBalanceResult(String responseBody) {
         JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
 
         double balance = json.has("balance") ? json.get("balance").getAsDouble() : 0.0;
@@ -219,111 +416,362 @@ public final class NSLSolver implements AutoCloseable {
     // --- Async API ---
 
     public CompletableFuture<TurnstileResult> solveTurnstileAsync(TurnstileParams params) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return solveTurnstile(params);
-            } catch (NSLSolverException e) {
-                throw new CompletionException(e);
-            }
-        });
+        return async(RequestType.TURNSTILE, solver -> solver.solveTurnstile(params));
     }
 
     public CompletableFuture<ChallengeResult> solveChallengeAsync(ChallengeParams params) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return solveChallenge(params);
-            } catch (NSLSolverException e) {
-                throw new CompletionException(e);
-            }
-        });
+        return async(RequestType.CHALLENGE, solver -> solver.solveChallenge(params));
     }
 
     public CompletableFuture<KasadaResult> solveKasadaAsync(KasadaParams params) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return solveKasada(params);
-            } catch (NSLSolverException e) {
-                throw new CompletionException(e);
-            }
-        });
+        return async(RequestType.KASADA, solver -> solver.solveKasada(params));
     }
 
     public CompletableFuture<BalanceResult> getBalanceAsync() {
-        return CompletableFuture.supplyAsync(() -> {
+        return async(RequestType.BALANCE, NSLSolver::getBalance);
+    }
+
+    /**
+     * Runs {@code task} on the type's async executor. With a bulkhead, the call waits for its slot
+     * as a pending future and is only handed to the executor once admitted, so a full bulkhead
+     * never parks executor (or common-pool) threads.
+     */
+    private <T> CompletableFuture<T> async(RequestType type, SolveTask<T> task) {
+        Executor executor = asyncExecutor(type);
+        Bulkhead bulkhead = bulkheads.get(type.ordinal());
+        if (bulkhead == null) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.solve(this);
+                } catch (NSLSolverException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        bulkhead.acquireAsync().whenComplete((slot, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
             try {
-                return getBalance();
-            } catch (NSLSolverException e) {
-                throw new CompletionException(e);
+                executor.execute(() -> {
+                    T value = null;
+                    Throwable error = null;
+                    admittedBy.set(bulkhead);
+                    try {
+                        value = task.solve(this);
+                    } catch (Throwable e) {
+                        error = e;
+                    } finally {
+                        admittedBy.remove();
+                        bulkhead.release();
+                    }
+                    // the slot is free before anything chained on the result runs
+                    if (error == null) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                bulkhead.release();
+                result.completeExceptionally(e);
             }
         });
+        return result;
+    }
+
+    // --- Refresh scheduling ---
+
+    /**
+     * Solves {@code task} now and keeps re-solving it in the background {@code refreshAhead} before
+     * each result's {@link SolveResult#getExpiresAt() expiry}, so {@link RefreshingResult#get()}
+     * normally returns a fresh result without waiting. Close the handle to stop refreshing.
+     * {@code refreshAhead} is capped at half of each result's lifetime, so a lead as long as the
+     * lifetime doesn't re-solve continuously. Turnstile tokens are single-use: each
+     * {@link RefreshingResult#get()} takes the current token and starts solving the next.
+     * @throws IllegalArgumentException if {@code refreshAhead} is negative
+     */
+    public <T extends SolveResult> RefreshingResult<T> keepFresh(SolveTask<T> task, Duration refreshAhead) {
+        Objects.requireNonNull(task, "task must not be null");
+        Objects.requireNonNull(refreshAhead, "refreshAhead must not be null");
+        if (refreshAhead.isNegative()) {
+            throw new IllegalArgumentException("refreshAhead must be >= 0");
+        }
+        return new RefreshingResult<>(this, task, refreshAhead, refreshScheduler, fanOutExecutor);
+    }
+
+    // --- Sessions ---
+
+    /**
+     * Wraps {@code client} so every request carries the Challenge clearance for {@code params}
+     * (cookies and user agent), re-solving once for all waiting requests when the target
+     * challenges again. Nothing is solved until the first request.
+     */
+    public SolvedSession session(HttpClient client, ChallengeParams params) {
+        return session(client, params, SolvedSession.CLOUDFLARE_CHALLENGE);
+    }
+
+    /**
+     * Same as {@link #session(HttpClient, ChallengeParams)}, re-solving only for responses that
+     * match {@code challenged}.
+     */
+    public SolvedSession session(HttpClient client, ChallengeParams params,
+                                 Predicate<? super HttpResponse<?>> challenged) {
+        Objects.requireNonNull(client, "client must not be null");
+        Objects.requireNonNull(params, "params must not be null");
+        Objects.requireNonNull(challenged, "challenged must not be null");
+        return new SolvedSession(client, this, s -> s.solveChallenge(params), () -> invalidate(params),
+                challenged, fanOutExecutor);
+    }
+
+    /** Same as {@link #session(HttpClient, ChallengeParams)}, applying Kasada headers. */
+    public SolvedSession session(HttpClient client, KasadaParams params) {
+        return session(client, params, SolvedSession.KASADA_CHALLENGE);
+    }
+
+    /** Same as {@link #session(HttpClient, ChallengeParams, Predicate)}, applying Kasada headers. */
+    public SolvedSession session(HttpClient client, KasadaParams params,
+                                 Predicate<? super HttpResponse<?>> challenged) {
+        Objects.requireNonNull(client, "client must not be null");
+        Objects.requireNonNull(params, "params must not be null");
+        Objects.requireNonNull(challenged, "challenged must not be null");
+        return new SolvedSession(client, this, s -> s.solveKasada(params), () -> invalidate(params),
+                challenged, fanOutExecutor);
+    }
+
+    // --- Structured concurrency ---
+
+    /**
+     * Runs every task with at most {@code maxConcurrency} in flight and completes with the results
+     * in task order. Fails fast: the first failure completes the future and interrupts every task
+     * still running. Cancelling the returned future does the same. Interrupting ends a retry
+     * backoff; an HTTP call in progress is only aborted on Java 16+, and on older runtimes finishes
+     * in the background with its response discarded.
+     */
+    public <T> CompletableFuture<List<T>> solveAll(List<? extends SolveTask<? extends T>> tasks, int maxConcurrency) {
+        Objects.requireNonNull(tasks, "tasks must not be null");
+        return FanOut.all(this, tasks, fanOutExecutor, maxConcurrency);
+    }
+
+    /** {@link #solveAll(List, int)} with every task started at once. */
+    public <T> CompletableFuture<List<T>> solveAll(List<? extends SolveTask<? extends T>> tasks) {
+        Objects.requireNonNull(tasks, "tasks must not be null");
+        return solveAll(tasks, Math.max(1, tasks.size()));
+    }
+
+    /**
+     * Races the tasks, at most {@code maxConcurrency} at a time, and completes with the first
+     * success; the losers are interrupted. Other failures are tolerated until every task has
+     * failed, but an {@link AuthenticationException} or {@link InsufficientBalanceException}
+     * aborts the race immediately since no other task can succeed either.
+     */
+    public <T> CompletableFuture<T> solveAny(List<? extends SolveTask<? extends T>> tasks, int maxConcurrency) {
+        Objects.requireNonNull(tasks, "tasks must not be null");
+        return FanOut.any(this, tasks, fanOutExecutor, maxConcurrency);
+    }
+
+    /** {@link #solveAny(List, int)} with every task started at once. */
+    public <T> CompletableFuture<T> solveAny(List<? extends SolveTask<? extends T>> tasks) {
+        Objects.requireNonNull(tasks, "tasks must not be null");
+        return solveAny(tasks, Math.max(1, tasks.size()));
+    }
+
+    // --- Bulkheads ---
+
+    /**
+     * Current state of the bulkhead for {@code type} ("turnstile", "challenge", "kasada" or
+     * "balance"), or null if none is configured for it.
+     */
+    public BulkheadStats getBulkheadStats(String type) {
+        Bulkhead bulkhead = bulkheads.get(RequestType.of(type).ordinal());
+        return bulkhead != null ? bulkhead.stats() : null;
+    }
+
+    /** Live counters and latency for {@code type} ("turnstile", "challenge", "kasada" or "balance"). */
+    public RequestStats getStats(String type) {
+        RequestType requestType = RequestType.of(type);
+        return counters.get(requestType).snapshot(requestType, latencies.get(requestType));
+    }
+
+    private Executor asyncExecutor(RequestType type) {
+        Executor executor = asyncExecutors.get(type);
+        return executor != null ? executor : ForkJoinPool.commonPool();
     }
 
     // --- HTTP internals ---
 
-    /** Retries on 429/503 with exponential backoff. */
-    private String executeWithRetry(String method, String path, String body) throws NSLSolverException {
-        NSLSolverException lastException = null;
+    /** Headers and URI shared by every request to {@code path}; each call adds its body and timeout. */
+    private ApiRequest.Prototype newRequestPrototype(String path) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("X-API-Key", List.of(apiKey));
+        headers.put("Content-Type", List.of("application/json"));
+        headers.put("Accept", List.of("application/json"));
+        headers.put("User-Agent", List.of(USER_AGENT));
+        if (compression) {
+            headers.put("Accept-Encoding", List.of(Compression.ACCEPT_ENCODING));
+        }
+        return new ApiRequest.Prototype(URI.create(baseUrl + path), headers);
+    }
+
+    /**
+     * Retries on 429/503 with exponential backoff, waiting at least as long as the server's
+     * {@code Retry-After} (capped at 60s by default). Intermediate failures stay
+     * as {@link Attempt}s; only the failure handed back to the caller becomes an exception.
+     * With an {@link AdaptiveTimeout}, attempts that time out are retried too.
+     */
+    private String executeWithRetry(RequestType type, ApiRequest.Prototype prototype, byte[] body)
+            throws NSLSolverException {
+        // captured from arrival, so replay reproduces the offered load rather than the admitted one
+        TrafficCapture.Call call = capture != null ? capture.begin(type, body) : null;
+        RequestCounters counter = counters.get(type);
+        counter.inFlight.incrementAndGet();
+        boolean succeeded = false;
+        try {
+            String response;
+            // read once: the MBean may swap it, and acquire and release must hit the same one
+            Bulkhead bulkhead = bulkheads.get(type.ordinal());
+            if (bulkhead == null || admittedBy.get() != null) {
+                // no limit, or an async call already holding its slot
+                response = retryLoop(type, prototype, body, call);
+            } else {
+                bulkhead.acquire();
+                try {
+                    response = retryLoop(type, prototype, body, call);
+                } finally {
+                    bulkhead.release();
+                }
+            }
+            succeeded = true;
+            return response;
+        } finally {
+            counter.inFlight.decrementAndGet();
+            (succeeded ? counter.successes : counter.failures).increment();
+            if (call != null) {
+                capture.end(call);
+            }
+        }
+    }
+
+    private String retryLoop(RequestType type, ApiRequest.Prototype prototype, byte[] body,
+                             TrafficCapture.Call call) throws NSLSolverException {
         long backoffMs = INITIAL_BACKOFF_MS;
 
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+        for (int attempt = 0; ; attempt++) {
+            long attemptStart = System.nanoTime();
+            Attempt result;
             try {
-                return execute(method, path, body);
+                result = execute(type, prototype, body, attempt);
             } catch (NSLSolverException e) {
-                lastException = e;
-
-                if (!e.isRetryable() || attempt == maxRetries) {
-                    throw e;
+                if (call != null) {
+                    call.attempt(0, "network", attemptStart);
                 }
+                throw e;
+            }
+            if (call != null) {
+                call.attempt(result.getStatusCode(), result.isTimeout() ? "timeout" : null, attemptStart);
+            }
+            if (result.isSuccess()) {
+                return result.getBody();
+            }
 
-                try {
-                    Thread.sleep(backoffMs);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new NSLSolverException("Request interrupted during retry backoff", ie);
-                }
+            boolean retryable = result.isRetryable() || (result.isTimeout() && adaptiveTimeout != null);
+            if (!retryable || attempt >= maxRetries) {
+                throw result.toException();
+            }
 
-                backoffMs = (long) (backoffMs * BACKOFF_MULTIPLIER);
+            long sleepMs = backoffMs;
+            if (result.getRetryAfter() != null) {
+                sleepMs = Math.max(sleepMs, Math.min(result.getRetryAfter().toMillis(), maxRetryAfterMs));
             }
-        }
+            counters.get(type).retries.increment();
 
-        throw lastException != null ? lastException : new NSLSolverException(0, "Unknown error");
+            RetryBackoffEvent event = Jfr.AVAILABLE ? new RetryBackoffEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new NSLSolverException("Request interrupted during retry backoff", ie);
+            } finally {
+                if (event != null) {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.type = type.key();
+                        event.attempt = attempt;
+                        event.sleepMillis = sleepMs;
+                        event.reason = result.isTimeout() ? "timeout" : "HTTP " + result.getStatusCode();
+                        event.commit();
+                    }
+                }
+            }
+
+            backoffMs = (long) (backoffMs * BACKOFF_MULTIPLIER);
+        }
     }
 
-    private String execute(String method, String path, String body) throws NSLSolverException {
+    private Attempt execute(RequestType type, ApiRequest.Prototype prototype, byte[] body, int attempt)
+            throws NSLSolverException {
+        LatencySketch latency = latencies.get(type);
+        SolveRequestEvent event = Jfr.AVAILABLE ? new SolveRequestEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long startNanos = System.nanoTime();
+        long requestBytes = 0;
+        long responseBytes = -1;
+        Attempt result = null;
         try {
-            URI uri = URI.create(baseUrl + path);
-
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(uri)
-                    .timeout(timeout)
-                    .header("X-API-Key", apiKey)
-                    .header("Content-Type", "application/json")
-                    .header("Accept", "application/json")
-                    .header("User-Agent", USER_AGENT);
-
-            if ("POST".equals(method) && body != null) {
-                requestBuilder.POST(HttpRequest.BodyPublishers.ofString(body));
+            Duration staticTimeout = timeout;
+            Duration attemptTimeout = adaptiveTimeout != null
+                    ? adaptiveTimeout.timeoutFor(latency, staticTimeout)
+                    : staticTimeout;
+
+            HttpRequest request;
+            if (body == null) {
+                request = prototype.get(attemptTimeout);
+            } else if (requestCompressionThreshold > 0 && body.length >= requestCompressionThreshold) {
+                byte[] gzipped = Compression.gzip(body);
+                requestBytes = gzipped.length;
+                request = prototype.postGzipped(gzipped, attemptTimeout);
             } else {
-                requestBuilder.GET();
+                requestBytes = body.length;
+                request = prototype.post(body, attemptTimeout);
+            }
+
+            if (compression) {
+                HttpResponse<InputStream> response = httpClient.send(
+                        request,
+                        HttpResponse.BodyHandlers.ofInputStream()
+                );
+                String responseBody = Compression.decode(
+                        response.body(),
+                        response.headers().firstValue("Content-Encoding").orElse(null));
+                latency.record(elapsedMillis(startNanos));
+                responseBytes = response.headers().firstValueAsLong("Content-Length").orElse(responseBody.length());
+                result = Attempt.of(response.statusCode(), responseBody, response.headers());
+                return result;
             }
 
             HttpResponse<String> response = httpClient.send(
-                    requestBuilder.build(),
+                    request,
                     HttpResponse.BodyHandlers.ofString()
             );
-
-            int statusCode = response.statusCode();
-            String responseBody = response.body();
-
-            if (statusCode >= 200 && statusCode < 300) {
-                return responseBody;
-            }
-
-            String errorMessage = parseErrorMessage(responseBody, statusCode);
-            throw createException(statusCode, errorMessage);
-
-        } catch (NSLSolverException e) {
-            throw e;
+            latency.record(elapsedMillis(startNanos));
+            responseBytes = response.headers().firstValueAsLong("Content-Length").orElse(response.body().length());
+            result = Attempt.of(response.statusCode(), response.body(), response.headers());
+            return result;
+
+        } catch (HttpTimeoutException e) {
+            // a censored sample, so a latency shift pushes the adaptive timeout up instead of
+            // timing out forever
+            latency.record(elapsedMillis(startNanos));
+            result = Attempt.timedOut(e);
+            return result;
         } catch (IOException e) {
             throw new NSLSolverException("Network error: " + e.getMessage(), e);
         } catch (InterruptedException e) {
@@ -331,47 +779,93 @@ public final class NSLSolver implements AutoCloseable {
             throw new NSLSolverException("Request interrupted", e);
         } catch (Exception e) {
             throw new NSLSolverException("Unexpected error: " + e.getMessage(), e);
+        } finally {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.type = type.key();
+                    event.attempt = attempt;
+                    event.statusCode = result != null ? result.getStatusCode() : 0;
+                    event.timedOut = result != null && result.isTimeout();
+                    event.requestBytes = requestBytes;
+                    event.responseBytes = responseBytes;
+                    event.commit();
+                }
+            }
         }
     }
 
-    private String parseErrorMessage(String responseBody, int statusCode) {
-        if (responseBody == null || responseBody.isEmpty()) {
-            return "HTTP " + statusCode;
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private Duration resultTtl(String type) {
+        return resultTtls.get(type);
+    }
+
+    /**
+     * Runs {@code task} accepting only store hits with at least {@code margin} of lifetime left, so
+     * a refresh ahead of expiry solves instead of getting the expiring result back.
+     */
+    <T> T solveWithStoreMargin(SolveTask<T> task, Duration margin) throws NSLSolverException {
+        Duration previous = storeMargin.get();
+        storeMargin.set(margin);
+        try {
+            return task.solve(this);
+        } finally {
+            storeMargin.set(previous);
         }
+    }
 
+    /** Whether a store hit has enough lifetime left to hand out. */
+    private boolean isUsable(SolveResult cached) {
+        if (cached == null || cached.isExpired()) {
+            return false;
+        }
+        Instant expiresAt = cached.getExpiresAt();
+        if (expiresAt == null) {
+            return true;
+        }
+        Duration margin = storeMargin.get();
+        if (margin == null || margin.compareTo(minStoredLifetime) < 0) {
+            margin = minStoredLifetime;
+        }
+        return !Instant.now().plus(margin).isAfter(expiresAt);
+    }
+
+    // The store is best effort: a failing store must never fail a solve.
+
+    private String storeGet(String key) {
         try {
-            JsonObject json = JsonParser.parseString(responseBody).getAsJsonObject();
-            if (json.has("error")) {
-                return json.get("error").getAsString();
-            }
-            if (json.has("message")) {
-                return json.get("message").getAsString();
-            }
-        } catch (Exception ignored) {
+            return resultStore.get(key);
+        } catch (RuntimeException e) {
+            return null;
         }
+    }
 
-        return responseBody.length() > 200 ? responseBody.substring(0, 200) : responseBody;
+    private void storePut(String key, String value, Instant expiresAt) {
+        try {
+            resultStore.put(key, value, expiresAt.toEpochMilli());
+        } catch (RuntimeException ignored) {
+        }
     }
 
-    private NSLSolverException createException(int statusCode, String message) {
-        switch (statusCode) {
-            case 400:
-                return new SolveException(400, message);
-            case 401:
-                return new AuthenticationException(message);
-            case 402:
-                return new InsufficientBalanceException(message);
-            case 403:
-                return new TypeNotAllowedException(message);
-            case 429:
-                return new RateLimitException(message);
-            case 503:
-                return new SolveException(503, message);
-            default:
-                return new NSLSolverException(statusCode, message);
+    private void storeRemove(String key) {
+        try {
+            resultStore.remove(key);
+        } catch (RuntimeException ignored) {
         }
     }
 
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     private static String getStringOrNull(JsonObject json, String key) {
         if (json.has(key) && !json.get(key).isJsonNull()) {
             return json.get(key).getAsString();
@@ -381,7 +875,123 @@ public final class NSLSolver implements AutoCloseable {
 
     @Override
     public void close() {
-        // HttpClient doesn't need explicit cleanup in Java 11+
+        // HttpClient doesn't need explicit cleanup in Java 11+; only the SDK's own threads do.
+        fanOutExecutor.shutdownNow();
+        refreshScheduler.shutdownNow();
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (JMException ignored) {
+                // already unregistered
+            }
+        }
+    }
+
+    // --- JMX ---
+
+    private ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.nslsolver:type=NSLSolver,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new Management(), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register MBean for NSLSolver '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    /** Swaps, resizes or removes the bulkhead for {@code type}. Calls already admitted are unaffected. */
+    private synchronized void setBulkhead(RequestType type, int maxConcurrent, int maxQueue) {
+        if (maxConcurrent < 0 || maxQueue < 0) {
+            throw new IllegalArgumentException("maxConcurrent and maxQueue must be >= 0");
+        }
+        Bulkhead current = bulkheads.get(type.ordinal());
+        if (maxConcurrent == 0) {
+            if (current != null) {
+                bulkheads.set(type.ordinal(), null);
+                current.resize(Integer.MAX_VALUE, maxQueue); // let queued calls through
+            }
+        } else if (current != null) {
+            current.resize(maxConcurrent, maxQueue);
+        } else {
+            bulkheads.set(type.ordinal(), new Bulkhead(type,
+                    BulkheadConfig.builder().maxConcurrent(maxConcurrent).maxQueue(maxQueue).build()));
+        }
+    }
+
+    private final class Management implements NSLSolverMXBean {
+
+        @Override
+        public int getInFlight() {
+            int total = 0;
+            for (RequestCounters counter : counters.values()) {
+                total += counter.inFlight.get();
+            }
+            return total;
+        }
+
+        @Override
+        public long getRetries() {
+            long total = 0;
+            for (RequestCounters counter : counters.values()) {
+                total += counter.retries.sum();
+            }
+            return total;
+        }
+
+        @Override public RequestStats getTurnstileStats() { return getStats("turnstile"); }
+        @Override public RequestStats getChallengeStats() { return getStats("challenge"); }
+        @Override public RequestStats getKasadaStats() { return getStats("kasada"); }
+        @Override public RequestStats getBalanceStats() { return getStats("balance"); }
+
+        @Override
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        @Override
+        public void setMaxRetries(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("maxRetries must be >= 0");
+            }
+            maxRetries = value;
+        }
+
+        @Override
+        public long getTimeoutMillis() {
+            return timeout.toMillis();
+        }
+
+        @Override
+        public void setTimeoutMillis(long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("timeoutMillis must be > 0");
+            }
+            timeout = Duration.ofMillis(value);
+        }
+
+        @Override
+        public long getMaxRetryAfterMillis() {
+            return maxRetryAfterMs;
+        }
+
+        @Override
+        public void setMaxRetryAfterMillis(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("maxRetryAfterMillis must be >= 0");
+            }
+            maxRetryAfterMs = value;
+        }
+
+        @Override
+        public BulkheadStats getBulkheadStats(String type) {
+            return NSLSolver.this.getBulkheadStats(type);
+        }
+
+        @Override
+        public void setBulkhead(String type, int maxConcurrent, int maxQueue) {
+            NSLSolver.this.setBulkhead(RequestType.of(type), maxConcurrent, maxQueue);
+        }
     }
 
     // --- Builder ---
@@ -391,7 +1001,17 @@ public final class NSLSolver implements AutoCloseable {
         private final String apiKey;
         private String baseUrl;
         private Duration timeout;
-        private int maxRetries;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private boolean compression;
+        private int requestCompressionThreshold;
+        private final Map<String, Duration> resultTtls = new HashMap<>();
+        private final Map<RequestType, BulkheadConfig> bulkheads = new EnumMap<>(RequestType.class);
+        private AdaptiveTimeout adaptiveTimeout;
+        private int prewarm;
+        private ResultStore resultStore;
+        private Duration minStoredLifetime;
+        private TrafficCapture capture;
+        private String jmxName;
 
         private Builder(String apiKey) {
             this.apiKey = Objects.requireNonNull(apiKey, "apiKey is required");
@@ -403,13 +1023,13 @@ public final class NSLSolver implements AutoCloseable {
             return this;
         }
 
-        /** Request timeout. Defaults to 120s. */
+        /** Request timeout. Defaults to 120s. Acts as the ceiling when {@link #adaptiveTimeout} is set. */
         public Builder timeout(Duration timeout) {
             this.timeout = timeout;
             return this;
         }
 
-        /** Max retries on 429/503. Defaults to 3. */
+        /** Max retries on 429/503. Defaults to 3; 0 disables retries. */
         public Builder maxRetries(int maxRetries) {
             if (maxRetries < 0) {
                 throw new IllegalArgumentException("maxRetries must be >= 0");
@@ -418,6 +1038,118 @@ public final class NSLSolver implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Advertise {@code Accept-Encoding: gzip, deflate} and inflate compressed responses.
+         * Off by default.
+         */
+        public Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Gzip request bodies of at least this many bytes and send them with
+         * {@code Content-Encoding: gzip}. 0 (the default) never compresses requests.
+         */
+        public Builder requestCompressionThreshold(int bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("requestCompressionThreshold must be >= 0");
+            }
+            this.requestCompressionThreshold = bytes;
+            return this;
+        }
+
+        /**
+         * How long results of {@code type} ("turnstile", "challenge" or "kasada") stay usable, used
+         * for {@link SolveResult#getExpiresAt()}. Defaults: 300s, 30min and 10min respectively.
+         */
+        public Builder resultTtl(String type, Duration ttl) {
+            if (!DEFAULT_RESULT_TTLS.containsKey(type)) {
+                throw new IllegalArgumentException("Unknown solve type: " + type);
+            }
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+            this.resultTtls.put(type, ttl);
+            return this;
+        }
+
+        /**
+         * Isolates {@code type} ("turnstile", "challenge", "kasada" or "balance") behind its own
+         * concurrency limit and wait queue. Calls over the limit fail fast with
+         * {@link BulkheadFullException}, so a degraded solver type can't take every thread.
+         * Types without a bulkhead are unlimited.
+         */
+        public Builder bulkhead(String type, BulkheadConfig config) {
+            this.bulkheads.put(RequestType.of(type), Objects.requireNonNull(config, "config must not be null"));
+            return this;
+        }
+
+        /**
+         * Derive each attempt's timeout from that request type's observed latency instead of the
+         * static {@link #timeout}, and retry attempts that time out. Off by default.
+         */
+        public Builder adaptiveTimeout(AdaptiveTimeout adaptiveTimeout) {
+            this.adaptiveTimeout = adaptiveTimeout;
+            return this;
+        }
+
+        /**
+         * Make {@link #build()} call {@link NSLSolver#warmUp(int)} with this many connections before
+         * returning, so the first solve starts on a warm client. 0 (the default) skips it. Like
+         * {@code warmUp}, it never makes {@code build()} fail because of network errors.
+         * @throws IllegalArgumentException if {@code connections} is negative
+         */
+        public Builder prewarm(int connections) {
+            if (connections < 0) {
+                throw new IllegalArgumentException("prewarm must be >= 0");
+            }
+            this.prewarm = connections;
+            return this;
+        }
+
+        /**
+         * Reuse unexpired Challenge and Kasada results from {@code store} -- possibly solved by
+         * another client or process -- instead of calling {@code /solve}, and publish new ones to
+         * it. Results are matched on target host, proxy and browser identity. Turnstile tokens
+         * are single-use and always solved. Off by default.
+         */
+        public Builder resultStore(ResultStore resultStore) {
+            this.resultStore = resultStore;
+            return this;
+        }
+
+        /**
+         * Only reuse stored results with at least this much lifetime left; closer to expiry, solve
+         * afresh. Defaults to 30s.
+         */
+        public Builder minStoredLifetime(Duration minStoredLifetime) {
+            if (minStoredLifetime != null && minStoredLifetime.isNegative()) {
+                throw new IllegalArgumentException("minStoredLifetime must be >= 0");
+            }
+            this.minStoredLifetime = minStoredLifetime;
+            return this;
+        }
+
+        /**
+         * Record a sanitized trace of every call to {@code capture}, for replay with the tools
+         * artifact. Closing the client doesn't close the capture. Off by default.
+         */
+        public Builder capture(TrafficCapture capture) {
+            this.capture = capture;
+            return this;
+        }
+
+        /**
+         * Register an {@link NSLSolverMXBean} named {@code com.nslsolver:type=NSLSolver,name=<name>}
+         * on the platform MBean server, for live stats and runtime tuning. Names must be unique
+         * among open clients. Off by default.
+         */
+        public Builder jmx(String name) {
+            this.jmxName = Objects.requireNonNull(name, "name must not be null");
+            return this;
+        }
+
         public NSLSolver build() {
             return new NSLSolver(this);
         }
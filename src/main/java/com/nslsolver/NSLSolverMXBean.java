@@ -0,0 +1,51 @@
+package com.nslsolver;
+
+/**
+ * JMX view of one client: live counters plus settings that can be changed without rebuilding it.
+ * Registered as {@code com.nslsolver:type=NSLSolver,name=<name>} by
+ * {@link NSLSolver.Builder#jmx(String)} and unregistered by {@link NSLSolver#close()}.
+ *
+ * <p>Changes apply to the next attempt of every call, including calls already in flight; nothing
+ * in flight is dropped. Request types are "turnstile", "challenge", "kasada" and "balance".
+ */
+public interface NSLSolverMXBean {
+
+    /** Calls in flight across all types. */
+    int getInFlight();
+
+    /** Retries across all types since the client was built. */
+    long getRetries();
+
+    RequestStats getTurnstileStats();
+
+    RequestStats getChallengeStats();
+
+    RequestStats getKasadaStats();
+
+    RequestStats getBalanceStats();
+
+    int getMaxRetries();
+
+    /** Max retries on 429/503 (and adaptive timeouts). 0 disables retrying. */
+    void setMaxRetries(int maxRetries);
+
+    long getTimeoutMillis();
+
+    /** Per-attempt timeout, and the ceiling for adaptive timeouts. Must be positive. */
+    void setTimeoutMillis(long timeoutMillis);
+
+    long getMaxRetryAfterMillis();
+
+    /** Ceiling on how long a 429/503 {@code Retry-After} may make the client wait. Must be >= 0. */
+    void setMaxRetryAfterMillis(long maxRetryAfterMillis);
+
+    /** The bulkhead state for {@code type}, or null if it is unlimited. */
+    BulkheadStats getBulkheadStats(String type);
+
+    /**
+     * Limits {@code type} to {@code maxConcurrent} calls in flight plus {@code maxQueue} waiting,
+     * creating its bulkhead if needed. {@code maxConcurrent} 0 removes the limit, releasing
+     * anything queued.
+     */
+    void setBulkhead(String type, int maxConcurrent, int maxQueue);
+}
@@ -0,0 +1,24 @@
+package com.nslsolver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event for time spent queued for a bulkhead slot. Only emitted when the caller had to wait. */
+@Name("com.nslsolver.QueueWait")
+@Label("NSLSolver Bulkhead Wait")
+@Category({"NSLSolver"})
+@Description("Time a caller spent queued for a slot in a per-type bulkhead")
+@StackTrace(false)
+final class QueueWaitEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Rejected")
+    @Description("True if the wait ended in a BulkheadFullException")
+    boolean rejected;
+}
@@ -0,0 +1,213 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.NSLSolverException;
+import com.nslsolver.models.SolveResult;
+import com.nslsolver.models.TurnstileResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A result that re-solves itself in the background shortly before it expires.
+ * Created by {@link NSLSolver#keepFresh(SolveTask, Duration)}.
+ *
+ * <p>At most one solve runs at a time: concurrent {@link #get()} calls that find the result
+ * expired all wait on the same refresh. Failed background refreshes are retried with backoff
+ * while the failure is retryable (network errors, 429, 503). Single-use Turnstile tokens are
+ * consumed by {@link #get()}, which keeps one solved token ready behind each one handed out.
+ */
+public final class RefreshingResult<T extends SolveResult> implements AutoCloseable {
+
+    private static final long MIN_DELAY_MS = 1000;
+    private static final long INITIAL_RETRY_MS = 1000;
+    private static final long MAX_RETRY_MS = 60_000;
+
+    private final NSLSolver solver;
+    private final SolveTask<T> task;
+    private final Duration refreshAhead;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+
+    private volatile T current;
+    private volatile boolean closed;
+    private CompletableFuture<T> inFlight;
+    private ScheduledFuture<?> scheduled;
+    private long retryDelayMs = INITIAL_RETRY_MS;
+
+    RefreshingResult(NSLSolver solver, SolveTask<T> task, Duration refreshAhead,
+                     ScheduledExecutorService scheduler, ExecutorService executor) {
+        this.solver = solver;
+        this.task = task;
+        this.refreshAhead = refreshAhead;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        refresh();
+    }
+
+    /**
+     * Returns the current result if it hasn't expired; otherwise waits for a refresh, starting one
+     * if none is running.
+     *
+     * <p>A {@link TurnstileResult} token is single-use, so each one is handed to exactly one caller:
+     * taking it starts solving the next, and concurrent callers wait for their own.
+     */
+    public T get() throws NSLSolverException {
+        while (true) {
+            T result = current;
+            if (result == null || result.isExpired()) {
+                result = await(refresh());
+            }
+            if (!(result instanceof TurnstileResult) || take(result)) {
+                return result;
+            }
+        }
+    }
+
+    private T await(CompletableFuture<T> refresh) throws NSLSolverException {
+        try {
+            return refresh.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NSLSolverException("Interrupted while waiting for refresh", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NSLSolverException) {
+                throw (NSLSolverException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new NSLSolverException("Refresh failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /** Claims a single-use result for one caller and starts solving its replacement. */
+    private synchronized boolean take(T result) {
+        if (current != result) {
+            // another caller took it first
+            return false;
+        }
+        current = null;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        if (!closed) {
+            refresh();
+        }
+        return true;
+    }
+
+    /**
+     * The latest result without waiting; may be expired, or null before the first solve finishes.
+     * A Turnstile token seen here is not taken, so another caller's {@link #get()} may still use it.
+     */
+    public T peek() {
+        return current;
+    }
+
+    /** Stops background refreshing. A solve already in flight is left to finish. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+        }
+    }
+
+    private synchronized CompletableFuture<T> refresh() {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("RefreshingResult is closed"));
+            return future;
+        }
+        inFlight = future;
+        try {
+            executor.execute(() -> run(future));
+        } catch (RejectedExecutionException e) {
+            inFlight = null;
+            future.completeExceptionally(new IllegalStateException("NSLSolver is closed", e));
+        }
+        return future;
+    }
+
+    private void run(CompletableFuture<T> future) {
+        T result;
+        try {
+            // a store hit must outlive the next refresh, or it would be refreshed again right away
+            result = solver.solveWithStoreMargin(task, refreshAhead.plusMillis(MIN_DELAY_MS));
+        } catch (Throwable t) {
+            onFailure(t);
+            future.completeExceptionally(t);
+            return;
+        }
+        onSuccess(result);
+        future.complete(result);
+    }
+
+    private synchronized void onSuccess(T result) {
+        current = result;
+        inFlight = null;
+        retryDelayMs = INITIAL_RETRY_MS;
+
+        Instant expiresAt = result.getExpiresAt();
+        if (expiresAt != null) {
+            long delayMs = Duration.between(Instant.now(), expiresAt.minus(refreshAheadOf(result))).toMillis();
+            schedule(Math.max(delayMs, MIN_DELAY_MS));
+        }
+    }
+
+    private synchronized void onFailure(Throwable t) {
+        inFlight = null;
+        if (isRetryable(t)) {
+            schedule(retryDelayMs);
+            retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_MS);
+        }
+    }
+
+    /**
+     * {@code refreshAhead}, capped at half the result's lifetime: a lead longer than the lifetime
+     * would re-solve every {@link #MIN_DELAY_MS} forever.
+     */
+    private Duration refreshAheadOf(T result) {
+        Instant solvedAt = result.getSolvedAt();
+        if (solvedAt == null) {
+            return refreshAhead;
+        }
+        Duration half = Duration.between(solvedAt, result.getExpiresAt()).dividedBy(2);
+        return refreshAhead.compareTo(half) > 0 ? half : refreshAhead;
+    }
+
+    /** Must hold the lock. */
+    private void schedule(long delayMs) {
+        if (closed) {
+            return;
+        }
+        try {
+            scheduled = scheduler.schedule(this::refresh, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // solver closed; get() will report it
+        }
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        if (!(t instanceof NSLSolverException)) {
+            return false;
+        }
+        NSLSolverException e = (NSLSolverException) t;
+        return e.getStatusCode() == 0 || e.isRetryable();
+    }
+}
@@ -0,0 +1,26 @@
+package com.nslsolver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Live call counters for one {@link RequestType}. */
+final class RequestCounters {
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    final LongAdder successes = new LongAdder();
+    final LongAdder failures = new LongAdder();
+    final LongAdder retries = new LongAdder();
+
+    RequestStats snapshot(RequestType type, LatencySketch latency) {
+        return new RequestStats(
+                type.key(),
+                inFlight.get(),
+                successes.sum(),
+                failures.sum(),
+                retries.sum(),
+                latency.lifetimeMeanMillis(),
+                latency.quantileMillis(0.5),
+                latency.quantileMillis(0.99),
+                latency.quantileMillis(0.999));
+    }
+}
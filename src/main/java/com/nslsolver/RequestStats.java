@@ -0,0 +1,61 @@
+package com.nslsolver;
+
+/**
+ * Point-in-time counters and latency for one request type. See {@link NSLSolver#getStats(String)}.
+ * Counts cover calls since the client was built; a call is one solve including its retries.
+ * Latencies are per HTTP attempt, with percentiles weighted toward recent traffic.
+ */
+public final class RequestStats {
+
+    private final String requestType;
+    private final int inFlight;
+    private final long successes;
+    private final long failures;
+    private final long retries;
+    private final double meanLatencyMillis;
+    private final long p50LatencyMillis;
+    private final long p99LatencyMillis;
+    private final long p999LatencyMillis;
+
+    RequestStats(String requestType, int inFlight, long successes, long failures, long retries,
+                 double meanLatencyMillis, long p50LatencyMillis, long p99LatencyMillis, long p999LatencyMillis) {
+        this.requestType = requestType;
+        this.inFlight = inFlight;
+        this.successes = successes;
+        this.failures = failures;
+        this.retries = retries;
+        this.meanLatencyMillis = meanLatencyMillis;
+        this.p50LatencyMillis = p50LatencyMillis;
+        this.p99LatencyMillis = p99LatencyMillis;
+        this.p999LatencyMillis = p999LatencyMillis;
+    }
+
+    public String getRequestType() { return requestType; }
+
+    /** Calls started and not yet finished, including those waiting for a bulkhead slot. */
+    public int getInFlight() { return inFlight; }
+    public long getSuccesses() { return successes; }
+    public long getFailures() { return failures; }
+
+    /** Attempts beyond the first, i.e. backoff-and-retry cycles. */
+    public long getRetries() { return retries; }
+    public double getMeanLatencyMillis() { return meanLatencyMillis; }
+    public long getP50LatencyMillis() { return p50LatencyMillis; }
+    public long getP99LatencyMillis() { return p99LatencyMillis; }
+    public long getP999LatencyMillis() { return p999LatencyMillis; }
+
+    @Override
+    public String toString() {
+        return "RequestStats{" +
+                "requestType='" + requestType + '\'' +
+                ", inFlight=" + inFlight +
+                ", successes=" + successes +
+                ", failures=" + failures +
+                ", retries=" + retries +
+                ", meanLatencyMillis=" + meanLatencyMillis +
+                ", p50LatencyMillis=" + p50LatencyMillis +
+                ", p99LatencyMillis=" + p99LatencyMillis +
+                ", p999LatencyMillis=" + p999LatencyMillis +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.nslsolver;
+
+/** The API operations the client issues, used to key per-type settings. */
+enum RequestType {
+    TURNSTILE("turnstile"),
+    CHALLENGE("challenge"),
+    KASADA("kasada"),
+    BALANCE("balance");
+
+    private final String key;
+
+    RequestType(String key) {
+        this.key = key;
+    }
+
+    /** The name used in the public API, e.g. {@code "turnstile"}. */
+    String key() {
+        return key;
+    }
+
+    static RequestType of(String key) {
+        for (RequestType type : values()) {
+            if (type.key.equals(key)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown request type: " + key
+                + " (expected turnstile, challenge, kasada or balance)");
+    }
+}
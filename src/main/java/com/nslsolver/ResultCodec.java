@@ -0,0 +1,150 @@
+package com.nslsolver;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nslsolver.models.ChallengeParams;
+import com.nslsolver.models.ChallengeResult;
+import com.nslsolver.models.KasadaConfig;
+import com.nslsolver.models.KasadaParams;
+import com.nslsolver.models.KasadaResult;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keys and serialized form for results kept in a {@link com.nslsolver.store.ResultStore}. A key
+ * covers everything a clearance is bound to -- target host, proxy and browser identity -- and is
+ * hashed so the proxy credentials never reach the store.
+ */
+final class ResultCodec {
+
+    private ResultCodec() {}
+
+    static String challengeKey(ChallengeParams params) {
+        return "challenge:" + sha256(String.join("\n",
+                host(params.getUrl()),
+                params.getProxy(),
+                String.valueOf(params.getUserAgent())));
+    }
+
+    static String kasadaKey(KasadaParams params) {
+        KasadaConfig config = params.getKasadaConfig();
+        return "kasada:" + sha256(String.join("\n",
+                host(params.getUrl()),
+                String.valueOf(params.getProxy()),
+                params.getUserAgent(),
+                String.valueOf(params.getUaVersion()),
+                config.getPJsPath(),
+                config.getFpHost(),
+                config.getTlHost(),
+                String.valueOf(config.getCdConstant())));
+    }
+
+    static String encode(ChallengeResult result) {
+        JsonObject json = header(result.getType(), result.isSuccess(),
+                result.getSolvedAt(), result.getSolveLatency(), result.getExpiresAt());
+        json.add("cookies", toJson(result.getCookies()));
+        json.addProperty("user_agent", result.getUserAgent());
+        return json.toString();
+    }
+
+    static String encode(KasadaResult result) {
+        JsonObject json = header(result.getType(), result.isSuccess(),
+                result.getSolvedAt(), result.getSolveLatency(), result.getExpiresAt());
+        json.add("headers", toJson(result.getHeaders()));
+        return json.toString();
+    }
+
+    /** Null if the value can't be read, e.g. written by an incompatible SDK version. */
+    static ChallengeResult decodeChallenge(String value) {
+        try {
+            JsonObject json = JsonParser.parseString(value).getAsJsonObject();
+            return new ChallengeResult(
+                    fromJson(json.getAsJsonObject("cookies")),
+                    json.has("user_agent") ? json.get("user_agent").getAsString() : null,
+                    json.get("type").getAsString(),
+                    json.get("success").getAsBoolean(),
+                    Instant.ofEpochMilli(json.get("solved_at").getAsLong()),
+                    Duration.ofMillis(json.get("latency_ms").getAsLong()),
+                    Instant.ofEpochMilli(json.get("expires_at").getAsLong()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Null if the value can't be read, e.g. written by an incompatible SDK version. */
+    static KasadaResult decodeKasada(String value) {
+        try {
+            JsonObject json = JsonParser.parseString(value).getAsJsonObject();
+            return new KasadaResult(
+                    fromJson(json.getAsJsonObject("headers")),
+                    json.get("type").getAsString(),
+                    json.get("success").getAsBoolean(),
+                    Instant.ofEpochMilli(json.get("solved_at").getAsLong()),
+                    Duration.ofMillis(json.get("latency_ms").getAsLong()),
+                    Instant.ofEpochMilli(json.get("expires_at").getAsLong()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static JsonObject header(String type, boolean success, Instant solvedAt, Duration latency,
+                                     Instant expiresAt) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", type);
+        json.addProperty("success", success);
+        json.addProperty("solved_at", solvedAt.toEpochMilli());
+        json.addProperty("latency_ms", latency.toMillis());
+        json.addProperty("expires_at", expiresAt.toEpochMilli());
+        return json;
+    }
+
+    private static JsonObject toJson(Map<String, String> map) {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            json.addProperty(entry.getKey(), entry.getValue());
+        }
+        return json;
+    }
+
+    private static Map<String, String> fromJson(JsonObject json) {
+        Map<String, String> map = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().getAsString());
+        }
+        return map;
+    }
+
+    /** Clearances are per host, not per URL; falls back to the whole URL if it doesn't parse. */
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) {
+                return host.toLowerCase(Locale.ROOT);
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        return url;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
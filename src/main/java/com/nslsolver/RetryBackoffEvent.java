@@ -0,0 +1,33 @@
+package com.nslsolver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event for the sleep between two attempts. Its duration is the actual time slept. */
+@Name("com.nslsolver.RetryBackoff")
+@Label("NSLSolver Retry Backoff")
+@Category({"NSLSolver"})
+@Description("Backoff sleep before retrying a failed attempt")
+@StackTrace(false)
+final class RetryBackoffEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Attempt")
+    @Description("The attempt that failed and is being retried")
+    int attempt;
+
+    @Label("Planned Sleep")
+    @Timespan(Timespan.MILLISECONDS)
+    long sleepMillis;
+
+    @Label("Reason")
+    @Description("e.g. HTTP 429, HTTP 503 or timeout")
+    String reason;
+}
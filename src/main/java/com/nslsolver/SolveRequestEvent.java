@@ -0,0 +1,42 @@
+package com.nslsolver;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event for one HTTP attempt against the API. Its duration is the attempt's wall time. */
+@Name("com.nslsolver.SolveRequest")
+@Label("NSLSolver Request")
+@Category({"NSLSolver"})
+@Description("One HTTP attempt to the NSLSolver API, including retried attempts")
+@StackTrace(false)
+final class SolveRequestEvent extends Event {
+
+    @Label("Type")
+    @Description("turnstile, challenge, kasada or balance")
+    String type;
+
+    @Label("Attempt")
+    @Description("0 for the first attempt, incremented per retry")
+    int attempt;
+
+    @Label("Status Code")
+    @Description("HTTP status, or 0 if no response was received")
+    int statusCode;
+
+    @Label("Timed Out")
+    boolean timedOut;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Size")
+    @Description("Content-Length, or the decoded body length when the header is absent")
+    @DataAmount
+    long responseBytes;
+}
@@ -0,0 +1,13 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.NSLSolverException;
+
+/**
+ * One unit of work for {@link NSLSolver#solveAll} and {@link NSLSolver#solveAny}, usually a method
+ * reference or lambda such as {@code s -> s.solveTurnstile(params)}.
+ */
+@FunctionalInterface
+public interface SolveTask<T> {
+
+    T solve(NSLSolver solver) throws NSLSolverException;
+}
@@ -0,0 +1,83 @@
+package com.nslsolver;
+
+import com.nslsolver.models.KasadaConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The static part of a {@code /solve} body (type, site key, Kasada config), encoded to UTF-8 once.
+ * Holds the JSON object without its closing brace so {@link JsonBody} can append per-call fields.
+ */
+final class SolveTemplate {
+
+    static final SolveTemplate CHALLENGE = new SolveTemplate(prefix("challenge").toString());
+
+    private final byte[] prefix;
+
+    private SolveTemplate(String prefix) {
+        this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static SolveTemplate turnstile(String siteKey) {
+        StringBuilder sb = prefix("turnstile");
+        sb.append(',');
+        JsonBody.appendQuoted(sb, "site_key");
+        sb.append(':');
+        JsonBody.appendQuoted(sb, siteKey);
+        return new SolveTemplate(sb.toString());
+    }
+
+    static SolveTemplate kasada(KasadaConfig config) {
+        StringBuilder sb = prefix("kasada");
+        sb.append(",\"kasada_config\":{\"p_js_path\":");
+        JsonBody.appendQuoted(sb, config.getPJsPath());
+        sb.append(",\"fp_host\":");
+        JsonBody.appendQuoted(sb, config.getFpHost());
+        sb.append(",\"tl_host\":");
+        JsonBody.appendQuoted(sb, config.getTlHost());
+        if (config.getCdConstant() != null) {
+            sb.append(",\"cd_constant\":");
+            JsonBody.appendQuoted(sb, config.getCdConstant());
+        }
+        sb.append('}');
+        return new SolveTemplate(sb.toString());
+    }
+
+    private static StringBuilder prefix(String type) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"type\":");
+        JsonBody.appendQuoted(sb, type);
+        return sb;
+    }
+
+    JsonBody begin() {
+        return new JsonBody(prefix);
+    }
+
+    /** Bounded cache of templates keyed by their static fields. Cleared wholesale when full. */
+    static final class Cache<K> {
+
+        private static final int MAX_ENTRIES = 256;
+
+        private final Map<K, SolveTemplate> templates = new ConcurrentHashMap<>();
+        private final Function<K, SolveTemplate> factory;
+
+        Cache(Function<K, SolveTemplate> factory) {
+            this.factory = factory;
+        }
+
+        SolveTemplate get(K key) {
+            SolveTemplate template = templates.get(key);
+            if (template == null) {
+                if (templates.size() >= MAX_ENTRIES) {
+                    templates.clear();
+                }
+                template = templates.computeIfAbsent(key, factory);
+            }
+            return template;
+        }
+    }
+}
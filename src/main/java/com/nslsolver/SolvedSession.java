@@ -0,0 +1,245 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.NSLSolverException;
+import com.nslsolver.models.ChallengeResult;
+import com.nslsolver.models.KasadaResult;
+import com.nslsolver.models.SolveResult;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Sends requests to a protected site through your own {@link HttpClient} with the current
+ * clearance applied: Challenge cookies and user agent, or Kasada headers. Created by
+ * {@link NSLSolver#session(HttpClient, com.nslsolver.models.ChallengeParams)} and
+ * {@link NSLSolver#session(HttpClient, com.nslsolver.models.KasadaParams)}.
+ *
+ * <p>The first request solves. When a response is a challenge or the clearance has expired, one
+ * re-solve runs in the background; every request meanwhile waits for that same solve, instead of
+ * starting its own or going out with the rejected clearance. A request that was challenged is sent once more with the
+ * new clearance; if that is challenged too, the response is returned as is. Other error responses,
+ * such as a 403 for a page the account may not see, are returned untouched and never re-solve.
+ *
+ * <p>By default a response is a challenge when it matches {@link #CLOUDFLARE_CHALLENGE} or
+ * {@link #KASADA_CHALLENGE}, by the session's type; pass a predicate to the
+ * {@code session} overloads for sites that signal it differently.
+ */
+public final class SolvedSession {
+
+    /**
+     * Cloudflare's challenge: a {@code cf-mitigated: challenge} header, or a 403/503 whose
+     * (string) body loads the challenge platform.
+     */
+    public static final Predicate<HttpResponse<?>> CLOUDFLARE_CHALLENGE = response -> {
+        if (response.headers().firstValue("cf-mitigated").filter("challenge"::equalsIgnoreCase).isPresent()) {
+            return true;
+        }
+        int status = response.statusCode();
+        if ((status != 403 && status != 503) || !(response.body() instanceof String)) {
+            return false;
+        }
+        String body = (String) response.body();
+        return body.contains("/cdn-cgi/challenge-platform/") || body.contains("window._cf_chl_opt");
+    };
+
+    /** Kasada's challenge: a 429 or 403 carrying {@code x-kpsdk-*} response headers. */
+    public static final Predicate<HttpResponse<?>> KASADA_CHALLENGE = response -> {
+        int status = response.statusCode();
+        if (status != 429 && status != 403) {
+            return false;
+        }
+        for (String name : response.headers().map().keySet()) {
+            if (name.regionMatches(true, 0, "x-kpsdk-", 0, 8)) {
+                return true;
+            }
+        }
+        return false;
+    };
+
+    private final HttpClient client;
+    private final NSLSolver solver;
+    private final SolveTask<? extends SolveResult> task;
+    private final Runnable invalidate;
+    private final Predicate<? super HttpResponse<?>> challenged;
+    private final ExecutorService executor;
+
+    private volatile SolveResult current;
+    private CompletableFuture<SolveResult> inFlight;
+
+    SolvedSession(HttpClient client, NSLSolver solver, SolveTask<? extends SolveResult> task,
+                  Runnable invalidate, Predicate<? super HttpResponse<?>> challenged, ExecutorService executor) {
+        this.client = client;
+        this.solver = solver;
+        this.task = task;
+        this.invalidate = invalidate;
+        this.challenged = challenged;
+        this.executor = executor;
+    }
+
+    /**
+     * Like {@link HttpClient#send}, with the clearance applied and challenged requests retried
+     * once after a re-solve.
+     * @throws NSLSolverException if solving the clearance fails
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException, NSLSolverException {
+        SolveResult clearance = await(clearance());
+        HttpResponse<T> response = client.send(apply(request, clearance), handler);
+        if (!challenged.test(response)) {
+            return response;
+        }
+        clearance = await(resolve(clearance, true));
+        return client.send(apply(request, clearance), handler);
+    }
+
+    /** Async {@link #send}. Fails with {@link NSLSolverException} if solving the clearance fails. */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler) {
+        return clearance().thenCompose(clearance ->
+                client.sendAsync(apply(request, clearance), handler).thenCompose(response -> {
+                    if (!challenged.test(response)) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    return resolve(clearance, true).thenCompose(fresh ->
+                            client.sendAsync(apply(request, fresh), handler));
+                }));
+    }
+
+    /** The clearance in use; null before the first solve finishes and while a rejected one is replaced. */
+    public SolveResult getResult() {
+        return current;
+    }
+
+    /**
+     * The pending solve if one is running, else the current clearance, else a new solve. Checking
+     * for a running solve first keeps requests from going out with a clearance already rejected.
+     */
+    private synchronized CompletableFuture<SolveResult> clearance() {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        SolveResult result = current;
+        if (result != null && !result.isExpired()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return resolve(result, false);
+    }
+
+    /**
+     * Replaces {@code stale} with a fresh solve. If it was already replaced, returns the
+     * replacement; if a solve is running, joins it. {@code rejected} means the target challenged
+     * {@code stale}, as opposed to it merely expiring.
+     */
+    private synchronized CompletableFuture<SolveResult> resolve(SolveResult stale, boolean rejected) {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        SolveResult result = current;
+        if (result != stale && result != null && !result.isExpired()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        if (rejected) {
+            // nobody else should send with it; if the re-solve fails, the next request solves again
+            current = null;
+        }
+        CompletableFuture<SolveResult> future = new CompletableFuture<>();
+        inFlight = future;
+        try {
+            executor.execute(() -> run(future, rejected));
+        } catch (RejectedExecutionException e) {
+            inFlight = null;
+            future.completeExceptionally(new IllegalStateException("NSLSolver is closed", e));
+        }
+        return future;
+    }
+
+    private void run(CompletableFuture<SolveResult> future, boolean rejected) {
+        SolveResult result;
+        try {
+            if (rejected) {
+                // don't pick the rejected clearance back up from a shared store; an expired one is
+                // left alone, since another process may already have replaced it with a fresh one
+                invalidate.run();
+            }
+            result = task.solve(solver);
+        } catch (Throwable t) {
+            synchronized (this) {
+                inFlight = null;
+            }
+            future.completeExceptionally(t);
+            return;
+        }
+        synchronized (this) {
+            current = result;
+            inFlight = null;
+        }
+        future.complete(result);
+    }
+
+    private static SolveResult await(CompletableFuture<SolveResult> future)
+            throws InterruptedException, NSLSolverException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NSLSolverException) {
+                throw (NSLSolverException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new NSLSolverException("Solve failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /** Copies {@code request} with the clearance's cookies, user agent or headers set. */
+    private static HttpRequest apply(HttpRequest request, SolveResult clearance) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), request.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody()))
+                .expectContinue(request.expectContinue());
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+
+        Map<String, List<String>> headers = request.headers().map();
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase("Cookie")) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                builder.header(entry.getKey(), value);
+            }
+        }
+
+        StringBuilder cookie = new StringBuilder(String.join("; ", request.headers().allValues("Cookie")));
+        if (clearance instanceof ChallengeResult) {
+            ChallengeResult challenge = (ChallengeResult) clearance;
+            for (Map.Entry<String, String> entry : challenge.getCookies().entrySet()) {
+                if (cookie.length() > 0) {
+                    cookie.append("; ");
+                }
+                cookie.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            if (challenge.getUserAgent() != null) {
+                builder.setHeader("User-Agent", challenge.getUserAgent());
+            }
+        } else if (clearance instanceof KasadaResult) {
+            for (Map.Entry<String, String> entry : ((KasadaResult) clearance).getHeaders().entrySet()) {
+                builder.setHeader(entry.getKey(), entry.getValue());
+            }
+        }
+        if (cookie.length() > 0) {
+            builder.setHeader("Cookie", cookie.toString());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.nslsolver;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a sanitized trace of every call a client makes, one JSON object per line, for replay
+ * against a stand-in server. Enabled with {@link NSLSolver.Builder#capture(TrafficCapture)}.
+ *
+ * <p>Each line holds the call's type, its start offset from the first captured call, the shape of
+ * its parameters and every attempt's status and latency:
+ *
+ * <pre>{@code {"t_ms":1520,"type":"challenge","params":{"url":31,"proxy":"***"},
+ *  "attempts":[{"status":429,"latency_ms":40},{"status":200,"latency_ms":8123}]}}</pre>
+ *
+ * <p>The shape maps each request field to the length of its value; no values are kept. The API
+ * key is never part of a request body, and the proxy is always written as {@code "***"}. Attempts
+ * that got no response have status 0 and an {@code error} of {@code "timeout"} or
+ * {@code "network"}. A trace can be shared by several clients.
+ */
+public final class TrafficCapture implements Closeable {
+
+    private static final String REDACTED = "***";
+
+    private final Writer out;
+    private volatile long originNanos = Long.MIN_VALUE;
+    private IOException failure;
+
+    private TrafficCapture(Writer out) {
+        this.out = out;
+    }
+
+    /** Captures to {@code file}, replacing it if it exists. */
+    public static TrafficCapture to(Path file) throws IOException {
+        return new TrafficCapture(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    /** Captures to {@code out}, which is closed with this capture. */
+    public static TrafficCapture to(Writer out) {
+        return new TrafficCapture(out);
+    }
+
+    /**
+     * Flushes and closes the trace.
+     * @throws IOException if this or any earlier write failed; writes never fail calls
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Starts recording a call; attempts are added to the returned handle. */
+    Call begin(RequestType type, byte[] body) {
+        long now = System.nanoTime();
+        if (originNanos == Long.MIN_VALUE) {
+            synchronized (this) {
+                if (originNanos == Long.MIN_VALUE) {
+                    originNanos = now;
+                }
+            }
+        }
+        return new Call(type, TimeUnit.NANOSECONDS.toMillis(now - originNanos), body);
+    }
+
+    void end(Call call) {
+        String line;
+        try {
+            line = call.toJson();
+        } catch (IOException | RuntimeException e) {
+            return; // a body we can't describe isn't worth failing the call over
+        }
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.write(line);
+                out.write('\n');
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    /** One call in progress. Not thread-safe; used by the calling thread only. */
+    static final class Call {
+
+        private final RequestType type;
+        private final long offsetMillis;
+        private final byte[] body;
+        private final List<long[]> attempts = new ArrayList<>(2);
+        private final List<String> errors = new ArrayList<>(2);
+
+        private Call(RequestType type, long offsetMillis, byte[] body) {
+            this.type = type;
+            this.offsetMillis = offsetMillis;
+            this.body = body;
+        }
+
+        /**
+         * @param statusCode HTTP status, or 0 with {@code error} set
+         * @param error null, "timeout" or "network"
+         */
+        void attempt(int statusCode, String error, long startNanos) {
+            attempts.add(new long[] {statusCode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)});
+            errors.add(error);
+        }
+
+        private String toJson() throws IOException {
+            StringWriter buffer = new StringWriter(256);
+            JsonWriter json = new JsonWriter(buffer);
+            json.beginObject();
+            json.name("t_ms").value(offsetMillis);
+            json.name("type").value(type.key());
+            if (body != null) {
+                json.name("params");
+                writeShape(json);
+            }
+            json.name("attempts").beginArray();
+            for (int i = 0; i < attempts.size(); i++) {
+                json.beginObject();
+                json.name("status").value(attempts.get(i)[0]);
+                json.name("latency_ms").value(attempts.get(i)[1]);
+                if (errors.get(i) != null) {
+                    json.name("error").value(errors.get(i));
+                }
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.flush();
+            return buffer.toString();
+        }
+
+        /** Re-reads the request body, keeping field names and value lengths only. */
+        private void writeShape(JsonWriter json) throws IOException {
+            try (JsonReader reader = new JsonReader(
+                    new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+                copyShape(reader, json, true);
+            }
+        }
+
+        private static void copyShape(JsonReader reader, JsonWriter json, boolean topLevel) throws IOException {
+            reader.beginObject();
+            json.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (topLevel && name.equals("type")) {
+                    reader.skipValue();
+                    continue;
+                }
+                json.name(name);
+                if (name.equals("proxy")) {
+                    reader.skipValue();
+                    json.value(REDACTED);
+                } else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    copyShape(reader, json, false);
+                } else if (reader.peek() == JsonToken.STRING || reader.peek() == JsonToken.NUMBER) {
+                    json.value(reader.nextString().length());
+                } else {
+                    reader.skipValue();
+                    json.nullValue();
+                }
+            }
+            reader.endObject();
+            json.endObject();
+        }
+    }
+}
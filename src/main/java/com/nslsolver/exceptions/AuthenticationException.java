@@ -1,5 +1,7 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /** Invalid or missing API key (HTTP 401). Not retryable. */
 public class AuthenticationException extends NSLSolverException {
 
@@ -10,4 +12,8 @@ public class AuthenticationException extends NSLSolverException {
     public AuthenticationException(String message, Throwable cause) {
         super(401, message, cause);
     }
+
+    public AuthenticationException(String message, String errorCode, String requestId, Duration retryAfter) {
+        super(401, message, errorCode, requestId, retryAfter);
+    }
 }
@@ -0,0 +1,20 @@
+package com.nslsolver.exceptions;
+
+/**
+ * Rejected locally because the bulkhead for this request type was full -- nothing was sent.
+ * Not retried automatically; back off or shed load.
+ */
+public class BulkheadFullException extends NSLSolverException {
+
+    private final String requestType;
+
+    public BulkheadFullException(String requestType, String message) {
+        super(0, message);
+        this.requestType = requestType;
+    }
+
+    /** The saturated request type, e.g. {@code "kasada"}. */
+    public String getRequestType() {
+        return requestType;
+    }
+}
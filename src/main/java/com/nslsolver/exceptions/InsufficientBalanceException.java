@@ -1,5 +1,7 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /** Account balance too low (HTTP 402). Add funds before retrying. */
 public class InsufficientBalanceException extends NSLSolverException {
 
@@ -10,4 +12,8 @@ public class InsufficientBalanceException extends NSLSolverException {
     public InsufficientBalanceException(String message, Throwable cause) {
         super(402, message, cause);
     }
+
+    public InsufficientBalanceException(String message, String errorCode, String requestId, Duration retryAfter) {
+        super(402, message, errorCode, requestId, retryAfter);
+    }
 }
@@ -1,27 +1,42 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /**
  * Base exception for all NSLSolver API errors.
  * Check {@link #getStatusCode()} for the HTTP status, or 0 for network-level failures.
+ * API errors also carry the structured fields of the error response when the server sent them.
  */
 public class NSLSolverException extends Exception {
 
     private final int statusCode;
+    private final String errorCode;
+    private final String requestId;
+    private final Duration retryAfter;
 
     public NSLSolverException(int statusCode, String message) {
-        super(message);
-        this.statusCode = statusCode;
+        this(statusCode, message, null, null, null);
     }
 
     public NSLSolverException(int statusCode, String message, Throwable cause) {
         super(message, cause);
         this.statusCode = statusCode;
+        this.errorCode = null;
+        this.requestId = null;
+        this.retryAfter = null;
     }
 
     /** Wraps a lower-level error (network timeout, etc.) with no HTTP status. */
     public NSLSolverException(String message, Throwable cause) {
-        super(message, cause);
-        this.statusCode = 0;
+        this(0, message, cause);
+    }
+
+    public NSLSolverException(int statusCode, String message, String errorCode, String requestId, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.errorCode = errorCode;
+        this.requestId = requestId;
+        this.retryAfter = retryAfter;
     }
 
     /** HTTP status code, or 0 if the error didn't come from an HTTP response. */
@@ -29,6 +44,21 @@ public class NSLSolverException extends Exception {
         return statusCode;
     }
 
+    /** Machine-readable error code from the response body, or null if none was sent. */
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    /** Request id from the {@code X-Request-Id} header or response body, or null. Quote it to support. */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /** Delay from the {@code Retry-After} header, or null if the server didn't send one. */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
     /** True for 429 and 503 -- the SDK retries these automatically. */
     public boolean isRetryable() {
         return statusCode == 429 || statusCode == 503;
@@ -1,5 +1,7 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /** Rate limited (HTTP 429). Retried automatically; thrown only after all retries fail. */
 public class RateLimitException extends NSLSolverException {
 
@@ -11,6 +13,10 @@ public class RateLimitException extends NSLSolverException {
         super(429, message, cause);
     }
 
+    public RateLimitException(String message, String errorCode, String requestId, Duration retryAfter) {
+        super(429, message, errorCode, requestId, retryAfter);
+    }
+
     @Override
     public boolean isRetryable() {
         return true;
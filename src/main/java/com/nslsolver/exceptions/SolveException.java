@@ -1,5 +1,7 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /** Bad request (400) or backend error (503). 503 is retried automatically. */
 public class SolveException extends NSLSolverException {
 
@@ -10,4 +12,8 @@ public class SolveException extends NSLSolverException {
     public SolveException(int statusCode, String message, Throwable cause) {
         super(statusCode, message, cause);
     }
+
+    public SolveException(int statusCode, String message, String errorCode, String requestId, Duration retryAfter) {
+        super(statusCode, message, errorCode, requestId, retryAfter);
+    }
 }
@@ -1,5 +1,7 @@
 package com.nslsolver.exceptions;
 
+import java.time.Duration;
+
 /** Captcha type not enabled for this account (HTTP 403). Contact support or upgrade. */
 public class TypeNotAllowedException extends NSLSolverException {
 
@@ -10,4 +12,8 @@ public class TypeNotAllowedException extends NSLSolverException {
     public TypeNotAllowedException(String message, Throwable cause) {
         super(403, message, cause);
     }
+
+    public TypeNotAllowedException(String message, String errorCode, String requestId, Duration retryAfter) {
+        super(403, message, errorCode, requestId, retryAfter);
+    }
 }
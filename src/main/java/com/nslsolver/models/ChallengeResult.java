@@ -1,21 +1,33 @@
 package com.nslsolver.models;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /** Result of a Challenge solve. Contains cookies (including cf_clearance) and the user agent to reuse. */
-public final class ChallengeResult {
+public final class ChallengeResult implements SolveResult {
 
     private final Map<String, String> cookies;
     private final String userAgent;
     private final String type;
     private final boolean success;
+    private final long solvedAtMillis;
+    private final long solveLatencyNanos;
+    private final long expiresAtMillis;
 
     public ChallengeResult(Map<String, String> cookies, String userAgent, String type, boolean success) {
-        this.cookies = cookies != null ? Collections.unmodifiableMap(cookies) : Collections.emptyMap();
-        this.userAgent = userAgent;
-        this.type = type;
+        this(cookies, userAgent, type, success, Instant.now(), Duration.ZERO, null);
+    }
+
+    public ChallengeResult(Map<String, String> cookies, String userAgent, String type, boolean success,
+                           Instant solvedAt, Duration solveLatency, Instant expiresAt) {
+        this.cookies = CompactMap.copyOf(cookies);
+        this.userAgent = Names.intern(userAgent);
+        this.type = Names.intern(type);
         this.success = success;
+        this.solvedAtMillis = Timestamps.toMillis(solvedAt);
+        this.solveLatencyNanos = Timestamps.toNanos(solveLatency);
+        this.expiresAtMillis = Timestamps.toMillis(expiresAt);
     }
 
     public Map<String, String> getCookies() { return cookies; }
@@ -27,8 +39,12 @@ public final class ChallengeResult {
 
     /** The user agent used during the solve -- you must reuse it for subsequent requests. */
     public String getUserAgent() { return userAgent; }
-    public String getType() { return type; }
-    public boolean isSuccess() { return success; }
+    @Override public String getType() { return type; }
+    @Override public boolean isSuccess() { return success; }
+    @Override public Instant getSolvedAt() { return Timestamps.toInstant(solvedAtMillis); }
+    @Override public Duration getSolveLatency() { return Timestamps.toDuration(solveLatencyNanos); }
+    @Override public Instant getExpiresAt() { return Timestamps.toInstant(expiresAtMillis); }
+    @Override public boolean isExpired() { return Timestamps.isPast(expiresAtMillis); }
 
     @Override
     public String toString() {
@@ -37,6 +53,7 @@ public final class ChallengeResult {
                 ", userAgent='" + userAgent + '\'' +
                 ", type='" + type + '\'' +
                 ", success=" + success +
+                (expiresAtMillis != Timestamps.NONE ? ", expiresAt=" + getExpiresAt() : "") +
                 '}';
     }
 }
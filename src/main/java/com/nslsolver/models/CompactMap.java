@@ -0,0 +1,128 @@
+package com.nslsolver.models;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable string map stored as one flat {@code [key, value, key, value, ...]} array, with keys
+ * interned through {@link Names}. Cookie and header maps hold a handful of entries, where a linear
+ * scan beats hashing and this layout costs two objects instead of a table plus a node per entry.
+ */
+final class CompactMap extends AbstractMap<String, String> {
+
+    /** Above this many entries lookups switch to a regular hash map. */
+    private static final int MAX_FLAT_ENTRIES = 8;
+
+    private static final CompactMap EMPTY = new CompactMap(new String[0]);
+
+    private final String[] entries;
+    private Set<Map.Entry<String, String>> entrySet;
+
+    private CompactMap(String[] entries) {
+        this.entries = entries;
+    }
+
+    /** An immutable copy of {@code source}; null or empty gives an empty map. */
+    static Map<String, String> copyOf(Map<String, String> source) {
+        if (source == null || source.isEmpty()) {
+            return EMPTY;
+        }
+        if (source instanceof CompactMap) {
+            return source;
+        }
+        if (source.size() > MAX_FLAT_ENTRIES) {
+            Map<String, String> copy = new HashMap<>(source.size() * 4 / 3 + 1);
+            for (Map.Entry<String, String> entry : source.entrySet()) {
+                copy.put(Names.intern(entry.getKey()), entry.getValue());
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+
+        String[] entries = new String[source.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : source.entrySet()) {
+            entries[i++] = Names.intern(entry.getKey());
+            entries[i++] = entry.getValue();
+        }
+        return new CompactMap(entries);
+    }
+
+    @Override
+    public int size() {
+        return entries.length / 2;
+    }
+
+    @Override
+    public String get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? entries[i + 1] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        Set<Map.Entry<String, String>> set = entrySet;
+        if (set == null) {
+            entrySet = set = new EntrySet();
+        }
+        return set;
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        // interned keys usually match by reference; fall back to equals for the rest
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+
+        @Override
+        public int size() {
+            return entries.length / 2;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new Iterator<Map.Entry<String, String>>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < entries.length;
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    if (next >= entries.length) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<String, String> entry = new SimpleImmutableEntry<>(entries[next], entries[next + 1]);
+                    next += 2;
+                    return entry;
+                }
+            };
+        }
+    }
+}
@@ -26,6 +26,22 @@ public final class KasadaConfig {
     public String getTlHost() { return tlHost; }
     public String getCdConstant() { return cdConstant; }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof KasadaConfig)) return false;
+        KasadaConfig that = (KasadaConfig) o;
+        return pJsPath.equals(that.pJsPath)
+                && fpHost.equals(that.fpHost)
+                && tlHost.equals(that.tlHost)
+                && Objects.equals(cdConstant, that.cdConstant);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pJsPath, fpHost, tlHost, cdConstant);
+    }
+
     @Override
     public String toString() {
         return "KasadaConfig{" +
@@ -1,19 +1,31 @@
 package com.nslsolver.models;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /** Result of a Kasada solve. Contains headers to include in subsequent requests. */
-public final class KasadaResult {
+public final class KasadaResult implements SolveResult {
 
     private final Map<String, String> headers;
     private final String type;
     private final boolean success;
+    private final long solvedAtMillis;
+    private final long solveLatencyNanos;
+    private final long expiresAtMillis;
 
     public KasadaResult(Map<String, String> headers, String type, boolean success) {
-        this.headers = headers != null ? Collections.unmodifiableMap(headers) : Collections.emptyMap();
-        this.type = type;
+        this(headers, type, success, Instant.now(), Duration.ZERO, null);
+    }
+
+    public KasadaResult(Map<String, String> headers, String type, boolean success,
+                        Instant solvedAt, Duration solveLatency, Instant expiresAt) {
+        this.headers = CompactMap.copyOf(headers);
+        this.type = Names.intern(type);
         this.success = success;
+        this.solvedAtMillis = Timestamps.toMillis(solvedAt);
+        this.solveLatencyNanos = Timestamps.toNanos(solveLatency);
+        this.expiresAtMillis = Timestamps.toMillis(expiresAt);
     }
 
     public Map<String, String> getHeaders() { return headers; }
@@ -24,8 +36,12 @@ public final class KasadaResult {
     /** Shortcut for the x-kpsdk-cd header. */
     public String getKpsdkCd() { return headers.get("x-kpsdk-cd"); }
 
-    public String getType() { return type; }
-    public boolean isSuccess() { return success; }
+    @Override public String getType() { return type; }
+    @Override public boolean isSuccess() { return success; }
+    @Override public Instant getSolvedAt() { return Timestamps.toInstant(solvedAtMillis); }
+    @Override public Duration getSolveLatency() { return Timestamps.toDuration(solveLatencyNanos); }
+    @Override public Instant getExpiresAt() { return Timestamps.toInstant(expiresAtMillis); }
+    @Override public boolean isExpired() { return Timestamps.isPast(expiresAtMillis); }
 
     @Override
     public String toString() {
@@ -33,6 +49,7 @@ public final class KasadaResult {
                 "headers=" + headers.keySet() +
                 ", type='" + type + '\'' +
                 ", success=" + success +
+                (expiresAtMillis != Timestamps.NONE ? ", expiresAt=" + getExpiresAt() : "") +
                 '}';
     }
 }
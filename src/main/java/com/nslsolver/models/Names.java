@@ -0,0 +1,32 @@
+package com.nslsolver.models;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates the small, repetitive strings held by results -- cookie and header names, type
+ * names, user agents -- so millions of cached results share one copy of each. Bounded: once full,
+ * new strings are kept as they are.
+ */
+final class Names {
+
+    private static final int MAX_SIZE = 4096;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private Names() {}
+
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = POOL.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        existing = POOL.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.nslsolver.models;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/** Common view of a solve result: outcome plus when it was solved and when it is expected to go stale. */
+public interface SolveResult {
+
+    String getType();
+
+    boolean isSuccess();
+
+    /** When the SDK received the solve response. */
+    Instant getSolvedAt();
+
+    /** Wall time the solve took, including retries. {@link Duration#ZERO} if not measured. */
+    Duration getSolveLatency();
+
+    /**
+     * Estimated expiry, measured conservatively from when the solve was requested.
+     * Null if unknown, e.g. for results built by hand without timing information.
+     */
+    Instant getExpiresAt();
+
+    /** True once {@link #getExpiresAt()} has passed. Always false when the expiry is unknown. */
+    default boolean isExpired() {
+        Instant expiresAt = getExpiresAt();
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+}
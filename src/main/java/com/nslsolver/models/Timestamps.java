@@ -0,0 +1,36 @@
+package com.nslsolver.models;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Results keep their times as primitive epoch millis / nanos rather than {@link Instant} and
+ * {@link Duration} objects; these convert at the getter boundary. {@link #NONE} stands for null.
+ */
+final class Timestamps {
+
+    static final long NONE = Long.MIN_VALUE;
+
+    private Timestamps() {}
+
+    static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : NONE;
+    }
+
+    static Instant toInstant(long millis) {
+        return millis != NONE ? Instant.ofEpochMilli(millis) : null;
+    }
+
+    static long toNanos(Duration duration) {
+        return duration != null ? duration.toNanos() : NONE;
+    }
+
+    static Duration toDuration(long nanos) {
+        return nanos != NONE ? Duration.ofNanos(nanos) : null;
+    }
+
+    /** Same rule as {@link SolveResult#isExpired()}, without allocating. */
+    static boolean isPast(long millis) {
+        return millis != NONE && System.currentTimeMillis() >= millis;
+    }
+}
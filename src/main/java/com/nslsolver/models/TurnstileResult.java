@@ -1,21 +1,39 @@
 package com.nslsolver.models;
 
+import java.time.Duration;
+import java.time.Instant;
+
 /** Result of a Turnstile solve. The token goes in the {@code cf-turnstile-response} form field. */
-public final class TurnstileResult {
+public final class TurnstileResult implements SolveResult {
 
     private final String token;
     private final String type;
     private final boolean success;
+    private final long solvedAtMillis;
+    private final long solveLatencyNanos;
+    private final long expiresAtMillis;
 
     public TurnstileResult(String token, String type, boolean success) {
+        this(token, type, success, Instant.now(), Duration.ZERO, null);
+    }
+
+    public TurnstileResult(String token, String type, boolean success,
+                           Instant solvedAt, Duration solveLatency, Instant expiresAt) {
         this.token = token;
-        this.type = type;
+        this.type = Names.intern(type);
         this.success = success;
+        this.solvedAtMillis = Timestamps.toMillis(solvedAt);
+        this.solveLatencyNanos = Timestamps.toNanos(solveLatency);
+        this.expiresAtMillis = Timestamps.toMillis(expiresAt);
     }
 
     public String getToken() { return token; }
-    public String getType() { return type; }
-    public boolean isSuccess() { return success; }
+    @Override public String getType() { return type; }
+    @Override public boolean isSuccess() { return success; }
+    @Override public Instant getSolvedAt() { return Timestamps.toInstant(solvedAtMillis); }
+    @Override public Duration getSolveLatency() { return Timestamps.toDuration(solveLatencyNanos); }
+    @Override public Instant getExpiresAt() { return Timestamps.toInstant(expiresAtMillis); }
+    @Override public boolean isExpired() { return Timestamps.isPast(expiresAtMillis); }
 
     @Override
     public String toString() {
@@ -25,6 +43,7 @@ public final class TurnstileResult {
                     : token) + '\'' +
                 ", type='" + type + '\'' +
                 ", success=" + success +
+                (expiresAtMillis != Timestamps.NONE ? ", expiresAt=" + getExpiresAt() : "") +
                 '}';
     }
 }
@@ -0,0 +1,78 @@
+package com.nslsolver.store;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** {@link ResultStore} shared by the clients of one JVM. Expired entries are purged lazily. */
+public final class InMemoryResultStore implements ResultStore {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public InMemoryResultStore() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /** Once {@code maxEntries} is reached, expired entries are purged and new ones dropped if still full. */
+    public InMemoryResultStore(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String key, String value, long expiresAtMillis) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, expiresAtMillis));
+    }
+
+    @Override
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().expiresAtMillis <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String value;
+        final long expiresAtMillis;
+
+        Entry(String value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
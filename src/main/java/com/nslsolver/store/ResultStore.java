@@ -0,0 +1,22 @@
+package com.nslsolver.store;
+
+/**
+ * Shared cache of solved results, consulted by {@code solveChallenge} and {@code solveKasada}
+ * before calling {@code /solve}, so processes solving for the same host, proxy and user agent
+ * can reuse each other's clearances. Turnstile tokens are single-use and never stored.
+ *
+ * <p>Keys are opaque, fixed-length hashes -- they never contain the proxy or its credentials.
+ * Values are the SDK's own serialized form of the result. Implementations must be thread-safe
+ * and should treat every operation as best effort: a failed lookup just means a fresh solve.
+ */
+public interface ResultStore {
+
+    /** The stored value for {@code key}, or null if absent or expired. */
+    String get(String key);
+
+    /** Stores {@code value} until {@code expiresAtMillis} (epoch millis), replacing any previous value. */
+    void put(String key, String value, long expiresAtMillis);
+
+    /** Drops {@code key}, e.g. after the target rejected its clearance. */
+    void remove(String key);
+}
@@ -0,0 +1,365 @@
+package com.nslsolver.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@link ResultStore} shared by every process on a host through a memory-mapped file.
+ *
+ * <p>The file is a fixed table of equally sized slots addressed by key hash with short linear
+ * probing. Each slot is guarded by a sequence lock: a writer claims it by CAS-ing the sequence
+ * from even to odd, writes, then publishes the next even value; readers copy the slot and retry
+ * if the sequence moved. No process ever blocks another, and a full table evicts the entry
+ * closest to expiry. A slot left mid-write by a crashed process is reclaimed after 10 seconds.
+ * Entries larger than a slot are silently not stored.
+ *
+ * <p>The first process to open the file sets its geometry; later ones use the file's, whatever
+ * they asked for. A file whose header or length doesn't match a valid geometry is rejected.
+ *
+ * <p>Entries are live clearances (cookies and headers) in plain text. Where the file system supports
+ * POSIX permissions the file is created owner-only ({@code rw-------}), so only processes running as
+ * the same user can share it; an existing file keeps its permissions. Elsewhere, put it in a
+ * directory only that user can read.
+ */
+public final class SharedFileResultStore implements ResultStore, Closeable {
+
+    public static final int DEFAULT_SLOTS = 4096;
+    public static final int DEFAULT_SLOT_SIZE = 4096;
+
+    private static final int MAGIC = 0x4E534C31; // "NSL1"
+    private static final int MAGIC_INITIALIZING = 0x4E534C30; // "NSL0", set while the creator writes geometry
+    private static final int HEADER_SIZE = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_SLOTS = 4;
+    private static final int H_SLOT_SIZE = 8;
+
+    // Slot layout. The lock word packs the sequence (high 32 bits) with the epoch second it was
+    // last claimed (low 32 bits), so claiming and timestamping are one CAS.
+    private static final int S_LOCK = 0;
+    private static final int S_KEY_HASH = 8;
+    private static final int S_EXPIRES_AT = 16;
+    private static final int S_KEY_LENGTH = 24;
+    private static final int S_VALUE_LENGTH = 28;
+    private static final int S_DATA = 32;
+
+    private static final int MAX_PROBES = 8;
+    private static final int MAX_READ_RETRIES = 4;
+    private static final long STALE_WRITE_SECONDS = 10;
+    private static final long INIT_WAIT_MILLIS = 5000;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final FileAttribute<?> OWNER_ONLY =
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int slotSize;
+
+    public SharedFileResultStore(Path file) throws IOException {
+        this(file, DEFAULT_SLOTS, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * @param slots number of entries the file can hold
+     * @param slotSize bytes per entry including a 32-byte header; a multiple of 64
+     */
+    public SharedFileResultStore(Path file, int slots, int slotSize) throws IOException {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots must be > 0");
+        }
+        if (slotSize < 128 || slotSize % 64 != 0) {
+            throw new IllegalArgumentException("slotSize must be a multiple of 64 and >= 128");
+        }
+
+        long size = HEADER_SIZE + (long) slots * slotSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("slots * slotSize must fit in 2 GiB");
+        }
+
+        Set<StandardOpenOption> options = EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel = file.getFileSystem().supportedFileAttributeViews().contains("posix")
+                ? FileChannel.open(file, options, OWNER_ONLY)
+                : FileChannel.open(file, options);
+        try {
+            MappedByteBuffer header = mapHeader();
+            if (INT.compareAndSet(header, H_MAGIC, 0, MAGIC_INITIALIZING)) {
+                // we created the file: only we write its geometry, then publish it with the magic
+                INT.setVolatile(header, H_SLOTS, slots);
+                INT.setVolatile(header, H_SLOT_SIZE, slotSize);
+                if (channel.size() < size) {
+                    channel.write(ByteBuffer.allocate(1), size - 1);
+                }
+                INT.setVolatile(header, H_MAGIC, MAGIC);
+            } else {
+                awaitInitialized(header, file);
+            }
+
+            int fileSlots = (int) INT.getVolatile(header, H_SLOTS);
+            int fileSlotSize = (int) INT.getVolatile(header, H_SLOT_SIZE);
+            long fileSize = HEADER_SIZE + (long) fileSlots * fileSlotSize;
+            if (fileSlots <= 0 || fileSlotSize < 128 || fileSlotSize % 64 != 0
+                    || fileSize > Integer.MAX_VALUE || channel.size() != fileSize) {
+                throw new IOException("Result store file " + file + " is truncated or corrupt");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            this.slots = fileSlots;
+            this.slotSize = fileSlotSize;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Maps just the header, first growing a new file to hold it. */
+    private MappedByteBuffer mapHeader() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            // only ever writes a zero into unused header padding, so racing creators are harmless
+            channel.write(ByteBuffer.allocate(1), HEADER_SIZE - 1);
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+    }
+
+    /** Waits for another process that is creating the file to publish its geometry. */
+    private static void awaitInitialized(MappedByteBuffer header, Path file) throws IOException {
+        long deadline = System.currentTimeMillis() + INIT_WAIT_MILLIS;
+        int magic;
+        while ((magic = (int) INT.getVolatile(header, H_MAGIC)) == MAGIC_INITIALIZING) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("Result store file " + file + " was left half-created; delete it");
+            }
+            Thread.onSpinWait();
+        }
+        if (magic != MAGIC) {
+            throw new IOException(file + " is not a result store file");
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        long now = System.currentTimeMillis();
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int base = slotOffset(hash, probe);
+            for (int retry = 0; retry < MAX_READ_RETRIES; retry++) {
+                long lock = (long) LONG.getAcquire(buffer, base + S_LOCK);
+                if (isWriting(lock)) {
+                    break; // treat a slot being written as a miss
+                }
+                if ((long) LONG.get(buffer, base + S_KEY_HASH) != hash) {
+                    break;
+                }
+                long expiresAt = (long) LONG.get(buffer, base + S_EXPIRES_AT);
+                int keyLength = (int) INT.get(buffer, base + S_KEY_LENGTH);
+                int valueLength = (int) INT.get(buffer, base + S_VALUE_LENGTH);
+                boolean sane = keyLength == keyBytes.length && valueLength >= 0
+                        && S_DATA + keyLength + valueLength <= slotSize;
+                byte[] data = sane ? copyOut(base + S_DATA, keyLength + valueLength) : null;
+
+                VarHandle.acquireFence();
+                if ((long) LONG.getAcquire(buffer, base + S_LOCK) != lock) {
+                    continue; // torn read, try again
+                }
+                if (!sane || expiresAt <= now || !Arrays.equals(data, 0, keyLength, keyBytes, 0, keyLength)) {
+                    break;
+                }
+                return new String(data, keyLength, valueLength, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String key, String value, long expiresAtMillis) {
+        tryPut(key, value, expiresAtMillis);
+    }
+
+    /** {@link #put}, returning whether the entry was written rather than dropped. */
+    boolean tryPut(String key, String value, long expiresAtMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        if (S_DATA + keyBytes.length + valueBytes.length > slotSize) {
+            return false;
+        }
+        long hash = hash(keyBytes);
+
+        long[] choice = new long[2];
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (!chooseSlot(hash, choice)) {
+                return false;
+            }
+            int base = (int) choice[0];
+            // CAS against the lock word the choice was based on: if anyone wrote the slot since,
+            // its sequence moved and we choose again rather than overwrite their entry
+            long claimed = claim(base, choice[1]);
+            if (claimed == 0) {
+                continue;
+            }
+            LONG.set(buffer, base + S_KEY_HASH, hash);
+            LONG.set(buffer, base + S_EXPIRES_AT, expiresAtMillis);
+            INT.set(buffer, base + S_KEY_LENGTH, keyBytes.length);
+            INT.set(buffer, base + S_VALUE_LENGTH, valueBytes.length);
+            copyIn(base + S_DATA, keyBytes);
+            copyIn(base + S_DATA + keyBytes.length, valueBytes);
+            publish(base, claimed);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void remove(String key) {
+        long hash = hash(key.getBytes(StandardCharsets.UTF_8));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int base = slotOffset(hash, probe);
+            long lock = (long) LONG.getVolatile(buffer, base + S_LOCK);
+            if (isWriting(lock) || (long) LONG.get(buffer, base + S_KEY_HASH) != hash) {
+                continue;
+            }
+            long claimed = claim(base, lock);
+            if (claimed == 0) {
+                continue;
+            }
+            if ((long) LONG.get(buffer, base + S_KEY_HASH) == hash) {
+                LONG.set(buffer, base + S_KEY_HASH, 0L);
+                LONG.set(buffer, base + S_EXPIRES_AT, 0L);
+            }
+            publish(base, claimed);
+        }
+    }
+
+    /** Unmapping happens when the buffer is collected; the file stays for other processes. */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Prefers the slot already holding this key, then an empty or expired slot, then the entry
+     * expiring soonest. Stores its offset and the lock word seen when it was inspected in
+     * {@code choice}; returns false if every probed slot is mid-write.
+     */
+    boolean chooseSlot(long hash, long[] choice) {
+        long now = System.currentTimeMillis();
+        int free = -1;
+        long freeLock = 0;
+        int victim = -1;
+        long victimLock = 0;
+        long victimExpiry = Long.MAX_VALUE;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int base = slotOffset(hash, probe);
+            long lock = (long) LONG.getVolatile(buffer, base + S_LOCK);
+            if (isWriting(lock) && !isStale(lock)) {
+                continue;
+            }
+            long slotHash = (long) LONG.get(buffer, base + S_KEY_HASH);
+            if (slotHash == hash) {
+                choice[0] = base;
+                choice[1] = lock;
+                return true;
+            }
+            long expiresAt = (long) LONG.get(buffer, base + S_EXPIRES_AT);
+            if (slotHash == 0 || expiresAt <= now) {
+                if (free < 0) {
+                    free = base;
+                    freeLock = lock;
+                }
+            } else if (expiresAt < victimExpiry) {
+                victim = base;
+                victimLock = lock;
+                victimExpiry = expiresAt;
+            }
+        }
+        if (free < 0 && victim < 0) {
+            return false;
+        }
+        choice[0] = free >= 0 ? free : victim;
+        choice[1] = free >= 0 ? freeLock : victimLock;
+        return true;
+    }
+
+    /**
+     * CASes the slot's lock word to an odd sequence stamped with the current second, taking over
+     * a stale claim if needed. Returns the new lock word, or 0 if another writer got there first.
+     */
+    long claim(int base, long lock) {
+        if (isWriting(lock) && !isStale(lock)) {
+            return 0;
+        }
+        // from even: +1 makes it odd; from a stale odd claim: +2 keeps it odd but different, so
+        // the crashed writer's late publish can't succeed
+        long nextSeq = sequence(lock) + (isWriting(lock) ? 2 : 1);
+        long claimed = (nextSeq << 32) | (nowSeconds() & 0xffffffffL);
+        return LONG.compareAndSet(buffer, base + S_LOCK, lock, claimed) ? claimed : 0;
+    }
+
+    /** Moves the sequence to the next even value. Fails harmlessly if our claim was taken over. */
+    private void publish(int base, long claimed) {
+        long published = ((sequence(claimed) + 1) << 32) | (claimed & 0xffffffffL);
+        LONG.compareAndSet(buffer, base + S_LOCK, claimed, published);
+    }
+
+    private static long sequence(long lock) {
+        return lock >>> 32;
+    }
+
+    private static boolean isWriting(long lock) {
+        return (sequence(lock) & 1) != 0;
+    }
+
+    private static boolean isStale(long lock) {
+        return nowSeconds() - (lock & 0xffffffffL) > STALE_WRITE_SECONDS;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private int slotOffset(long hash, int probe) {
+        int index = (int) Math.floorMod(hash + probe, (long) slots);
+        return HEADER_SIZE + index * slotSize;
+    }
+
+    private byte[] copyOut(int offset, int length) {
+        byte[] dst = new byte[length];
+        for (int i = 0; i < length; i++) {
+            dst[i] = buffer.get(offset + i);
+        }
+        return dst;
+    }
+
+    private void copyIn(int offset, byte[] src) {
+        for (int i = 0; i < src.length; i++) {
+            buffer.put(offset + i, src[i]);
+        }
+    }
+
+    /** 64-bit FNV-1a; never 0, which marks an empty slot. */
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,105 @@
+package com.nslsolver;
+
+import com.nslsolver.exceptions.BulkheadFullException;
+import com.nslsolver.exceptions.NSLSolverException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    @Test
+    void queuedCallsAreAdmittedInArrivalOrderWithoutHoldingThreads() {
+        Bulkhead bulkhead = bulkhead(1, 2, null);
+        assertTrue(bulkhead.acquireAsync().isDone());
+        CompletableFuture<Void> first = bulkhead.acquireAsync();
+        CompletableFuture<Void> second = bulkhead.acquireAsync();
+        assertFalse(first.isDone());
+        assertEquals(2, bulkhead.stats().getQueued());
+
+        bulkhead.release();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        bulkhead.release();
+        assertTrue(second.isDone());
+        assertEquals(1, bulkhead.stats().getInFlight());
+        assertEquals(0, bulkhead.stats().getQueued());
+    }
+
+    @Test
+    void fullQueueFailsAtOnce() {
+        Bulkhead bulkhead = bulkhead(1, 0, null);
+        bulkhead.acquireAsync();
+        CompletableFuture<Void> rejected = bulkhead.acquireAsync();
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(e.getCause() instanceof BulkheadFullException);
+        assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        assertEquals(2, bulkhead.stats().getRejected());
+    }
+
+    @Test
+    void expiredWaiterGivesUpItsPlace() throws Exception {
+        Bulkhead bulkhead = bulkhead(1, 2, Duration.ofMillis(50));
+        bulkhead.acquireAsync();
+        CompletableFuture<Void> expiring = bulkhead.acquireAsync();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> expiring.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BulkheadFullException);
+        assertEquals(0, bulkhead.stats().getQueued());
+        assertEquals(1, bulkhead.stats().getRejected());
+
+        bulkhead.release();
+        assertEquals(0, bulkhead.stats().getInFlight());
+    }
+
+    @Test
+    void interruptedAcquireLeavesNoSlotBehind() throws Exception {
+        Bulkhead bulkhead = bulkhead(1, 1, null);
+        bulkhead.acquire();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                bulkhead.acquire();
+            } catch (NSLSolverException e) {
+                thrown.set(e);
+            }
+        });
+        waiter.start();
+        while (bulkhead.stats().getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertTrue(thrown.get() != null && thrown.get().getCause() instanceof InterruptedException);
+        assertEquals(0, bulkhead.stats().getQueued());
+        bulkhead.release();
+        assertEquals(0, bulkhead.stats().getInFlight());
+        assertTrue(bulkhead.acquireAsync().isDone());
+    }
+
+    @Test
+    void raisingTheLimitAdmitsQueuedCalls() {
+        Bulkhead bulkhead = bulkhead(1, 4, null);
+        bulkhead.acquireAsync();
+        CompletableFuture<Void> first = bulkhead.acquireAsync();
+        CompletableFuture<Void> second = bulkhead.acquireAsync();
+
+        bulkhead.resize(3, 4);
+        assertTrue(first.isDone() && second.isDone());
+        assertEquals(3, bulkhead.stats().getInFlight());
+    }
+
+    private static Bulkhead bulkhead(int maxConcurrent, int maxQueue, Duration maxWait) {
+        return new Bulkhead(RequestType.KASADA, BulkheadConfig.builder()
+                .maxConcurrent(maxConcurrent).maxQueue(maxQueue).maxWait(maxWait).build());
+    }
+}
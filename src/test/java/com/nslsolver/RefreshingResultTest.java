@@ -0,0 +1,71 @@
+package com.nslsolver;
+
+import com.nslsolver.models.ChallengeResult;
+import com.nslsolver.models.TurnstileResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RefreshingResultTest {
+
+    private final NSLSolver solver = NSLSolver.builder("test-key").build();
+
+    @AfterEach
+    void close() {
+        solver.close();
+    }
+
+    @Test
+    void reusableResultIsSharedUntilItExpires() throws Exception {
+        AtomicInteger solves = new AtomicInteger();
+        try (RefreshingResult<ChallengeResult> fresh = solver.keepFresh(s -> {
+            Instant now = Instant.now();
+            return new ChallengeResult(Map.of("cf_clearance", "v" + solves.incrementAndGet()), "ua", "challenge",
+                    true, now, Duration.ZERO, now.plusSeconds(600));
+        }, Duration.ofSeconds(30))) {
+            ChallengeResult first = fresh.get();
+            assertSame(first, fresh.get());
+            assertEquals(1, solves.get());
+        }
+    }
+
+    @Test
+    void eachTurnstileTokenGoesToOneCaller() throws Exception {
+        AtomicInteger solves = new AtomicInteger();
+        try (RefreshingResult<TurnstileResult> fresh = solver.keepFresh(s -> {
+            Instant now = Instant.now();
+            return new TurnstileResult("token-" + solves.incrementAndGet(), "turnstile", true,
+                    now, Duration.ZERO, now.plusSeconds(300));
+        }, Duration.ofSeconds(30))) {
+            int callers = 8;
+            ExecutorService pool = Executors.newFixedThreadPool(callers);
+            try {
+                List<Future<String>> tokens = new ArrayList<>();
+                for (int i = 0; i < callers * 4; i++) {
+                    tokens.add(pool.submit(() -> fresh.get().getToken()));
+                }
+                Set<String> seen = new HashSet<>();
+                for (Future<String> token : tokens) {
+                    seen.add(token.get());
+                }
+                assertEquals(tokens.size(), seen.size());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.nslsolver.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedFileResultStoreTest {
+
+    // file layout the tests poke at directly
+    private static final int HEADER_SIZE = 64;
+    private static final int H_SLOT_SIZE = 8;
+    private static final int MAX_PROBES = 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopeningKeepsEntriesAndTheFilesGeometry() throws IOException {
+        Path file = dir.resolve("store");
+        try (SharedFileResultStore store = new SharedFileResultStore(file, 16, 256)) {
+            store.put("key", "value", later(60));
+        }
+        try (SharedFileResultStore store = new SharedFileResultStore(file, 32, 512)) {
+            assertEquals("value", store.get("key"));
+        }
+        assertEquals(HEADER_SIZE + 16 * 256, Files.size(file));
+    }
+
+    @Test
+    void rejectsMisalignedSlotSize() throws IOException {
+        Path file = dir.resolve("store");
+        new SharedFileResultStore(file, 16, 256).close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer slotSize = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder()).putInt(0, 200);
+            channel.write(slotSize, H_SLOT_SIZE);
+        }
+        assertThrows(IOException.class, () -> new SharedFileResultStore(file, 16, 256));
+    }
+
+    @Test
+    void rejectsFileWhoseLengthDoesNotMatchItsGeometry() throws IOException {
+        Path file = dir.resolve("store");
+        new SharedFileResultStore(file, 16, 256).close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(HEADER_SIZE + 8 * 256);
+        }
+        assertThrows(IOException.class, () -> new SharedFileResultStore(file, 16, 256));
+    }
+
+    @Test
+    void rejectsForeignFile() throws IOException {
+        Path file = dir.resolve("store");
+        Files.write(file, "not a result store, just some text that is long enough".repeat(100).getBytes());
+        assertThrows(IOException.class, () -> new SharedFileResultStore(file, 16, 256));
+    }
+
+    @Test
+    void concurrentCreatorsAgreeOnOneGeometry() throws Exception {
+        Path file = dir.resolve("store");
+        int creators = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(creators);
+        List<Future<SharedFileResultStore>> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < creators; i++) {
+                int slots = 64 * (i + 1);
+                opened.add(pool.submit(() -> {
+                    start.await();
+                    return new SharedFileResultStore(file, slots, 256);
+                }));
+            }
+            start.countDown();
+            List<SharedFileResultStore> stores = new ArrayList<>();
+            for (Future<SharedFileResultStore> future : opened) {
+                stores.add(future.get());
+            }
+
+            long size = Files.size(file);
+            assertTrue((size - HEADER_SIZE) % (64 * 256) == 0 && size <= HEADER_SIZE + creators * 64 * 256,
+                    "file length " + size + " matches none of the requested geometries");
+            for (int i = 0; i < 8; i++) {
+                stores.get(i % creators).put("key-" + i, "value-" + i, later(60));
+            }
+            for (SharedFileResultStore store : stores) {
+                for (int i = 0; i < 8; i++) {
+                    assertEquals("value-" + i, store.get("key-" + i));
+                }
+                store.close();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentPutGetRemoveAcrossInstances() throws Exception {
+        Path file = dir.resolve("store");
+        // one key per thread in a table as small as the probe window: every put contends for the
+        // same slots, but a free one always exists, so nothing written should ever be lost
+        int threads = MAX_PROBES;
+        try (SharedFileResultStore first = new SharedFileResultStore(file, MAX_PROBES, 256);
+             SharedFileResultStore second = new SharedFileResultStore(file, MAX_PROBES, 256)) {
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<Integer>> workers = new ArrayList<>();
+            try {
+                for (int t = 0; t < threads; t++) {
+                    String key = "key-" + t;
+                    SharedFileResultStore store = t % 2 == 0 ? first : second;
+                    SharedFileResultStore other = t % 2 == 0 ? second : first;
+                    workers.add(pool.submit(() -> {
+                        start.await();
+                        int written = 0;
+                        for (int round = 0; round < 20_000; round++) {
+                            String value = key + "-" + round;
+                            if (store.tryPut(key, value, later(60))) {
+                                written++;
+                                assertEquals(value, other.get(key), "lost update for " + key);
+                            }
+                            if (round % 3 == 0) {
+                                other.remove(key);
+                                assertNull(store.get(key), "removed " + key + " still visible");
+                            }
+                        }
+                        return written;
+                    }));
+                }
+                start.countDown();
+                for (Future<Integer> worker : workers) {
+                    assertTrue(worker.get() > 0);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void claimFailsIfTheSlotWasWrittenAfterItWasChosen() throws IOException {
+        Path file = dir.resolve("store");
+        // one slot, so both keys compete for it
+        try (SharedFileResultStore store = new SharedFileResultStore(file, 1, 256);
+             SharedFileResultStore other = new SharedFileResultStore(file, 1, 256)) {
+            long[] choice = new long[2];
+            assertTrue(store.chooseSlot(SharedFileResultStore.hash("mine".getBytes(StandardCharsets.UTF_8)), choice));
+
+            other.put("theirs", "value", later(60));
+
+            assertEquals(0, store.claim((int) choice[0], choice[1]));
+            assertEquals("value", store.get("theirs"));
+        }
+    }
+
+    @Test
+    void staleClaimIsTakenOverAfterTimeout() throws IOException {
+        Path file = dir.resolve("store");
+        // one slot, so every key lands at HEADER_SIZE
+        try (SharedFileResultStore store = new SharedFileResultStore(file, 1, 256)) {
+            store.put("before", "value", later(60));
+            leaveMidWrite(file, HEADER_SIZE, nowSeconds() - 11);
+
+            assertNull(store.get("before"), "a slot being written reads as a miss");
+            store.put("after", "value", later(60));
+            assertEquals("value", store.get("after"));
+        }
+    }
+
+    @Test
+    void freshClaimIsNotTakenOver() throws IOException {
+        Path file = dir.resolve("store");
+        try (SharedFileResultStore store = new SharedFileResultStore(file, 1, 256)) {
+            leaveMidWrite(file, HEADER_SIZE, nowSeconds());
+
+            store.put("key", "value", later(60));
+            assertNull(store.get("key"));
+        }
+    }
+
+    @Test
+    void fullProbeWindowEvictsTheEntryExpiringSoonest() throws IOException {
+        Path file = dir.resolve("store");
+        // as many slots as probes, so every key can reach every slot
+        try (SharedFileResultStore store = new SharedFileResultStore(file, MAX_PROBES, 256)) {
+            for (int i = 0; i < MAX_PROBES; i++) {
+                store.put("key-" + i, "value-" + i, later(60 + i));
+            }
+            store.put("extra", "value", later(600));
+
+            assertNull(store.get("key-0"));
+            for (int i = 1; i < MAX_PROBES; i++) {
+                assertEquals("value-" + i, store.get("key-" + i));
+            }
+            assertEquals("value", store.get("extra"));
+        }
+    }
+
+    @Test
+    void putIsDroppedWhenEveryProbedSlotIsBeingWritten() throws IOException {
+        Path file = dir.resolve("store");
+        try (SharedFileResultStore store = new SharedFileResultStore(file, MAX_PROBES, 256)) {
+            for (int i = 0; i < MAX_PROBES; i++) {
+                leaveMidWrite(file, HEADER_SIZE + i * 256, nowSeconds());
+            }
+            store.put("key", "value", later(60));
+            assertNull(store.get("key"));
+        }
+    }
+
+    /** Sets a slot's lock word to an odd sequence claimed at {@code claimedAtSecond}, as a crashed writer would. */
+    private static void leaveMidWrite(Path file, int slot, long claimedAtSecond) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            long sequence = buffer.getLong(slot) >>> 32;
+            buffer.putLong(slot, ((sequence | 1) << 32) | (claimedAtSecond & 0xffffffffL));
+            buffer.force();
+        }
+    }
+
+    private static long later(int seconds) {
+        return System.currentTimeMillis() + seconds * 1000L;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
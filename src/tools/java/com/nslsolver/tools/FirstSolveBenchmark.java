@@ -0,0 +1,136 @@
+package com.nslsolver.tools;
+
+import com.nslsolver.NSLSolver;
+import com.nslsolver.models.TurnstileParams;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures time to first solve in a cold JVM, with and without {@code Builder.prewarm}. Each run
+ * is a fresh child JVM that builds a client against an in-process {@link StandInServer} and
+ * solves twice; cold and prewarmed runs alternate. Reports the median and worst of: {@code build()}
+ * (where prewarming spends its time), the first solve, and the second solve as the warm baseline.
+ *
+ * <p>On loopback there is no DNS or TLS, so this mostly measures class loading and connection
+ * setup; against a remote API prewarming saves more.
+ *
+ * <pre>
+ * java -cp nslsolver-java.jar:nslsolver-java-tools.jar:gson.jar com.nslsolver.tools.FirstSolveBenchmark \
+ *     --runs 10 --standin-latency-ms 20
+ * </pre>
+ */
+public final class FirstSolveBenchmark {
+
+    private static final String CHILD = "--child";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals(CHILD)) {
+            child(args[1], Boolean.parseBoolean(args[2]));
+            return;
+        }
+
+        int runs = 10;
+        long latencyMs = 20;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--runs":
+                        runs = Integer.parseInt(args[++i]);
+                        break;
+                    case "--standin-latency-ms":
+                        latencyMs = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (runs <= 0 || latencyMs < 0) {
+                throw new IllegalArgumentException("--runs must be positive and --standin-latency-ms non-negative");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: FirstSolveBenchmark [--runs N] [--standin-latency-ms MS]");
+            System.exit(2);
+            return;
+        }
+
+        long delay = latencyMs;
+        List<double[]> cold = new ArrayList<>();
+        List<double[]> prewarmed = new ArrayList<>();
+        try (StandInServer server = StandInServer.start(0, request ->
+                StandInServer.Reply.ok(request.get("type").getAsString().equals("balance") ? 0 : delay))) {
+            for (int i = 0; i < runs; i++) {
+                cold.add(spawn(server.baseUrl(), false));
+                prewarmed.add(spawn(server.baseUrl(), true));
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-9s %5s %14s %14s %14s%n", "", "runs", "build ms", "first solve ms", "second ms");
+        print("cold", cold);
+        print("prewarm", prewarmed);
+        System.out.println("median / max; stand-in solve latency " + latencyMs + "ms");
+        System.exit(0);
+    }
+
+    /** Runs one child JVM and returns its build, first-solve and second-solve millis. */
+    private static double[] spawn(String baseUrl, boolean prewarm) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                FirstSolveBenchmark.class.getName(), CHILD, baseUrl, String.valueOf(prewarm))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String line;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            line = reader.readLine();
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IOException("Child JVM failed (exit " + process.exitValue() + ")");
+        }
+        String[] parts = line.trim().split(" ");
+        return new double[] {Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])};
+    }
+
+    private static void child(String baseUrl, boolean prewarm) throws Exception {
+        long start = System.nanoTime();
+        NSLSolver.Builder builder = NSLSolver.builder("benchmark").baseUrl(baseUrl);
+        if (prewarm) {
+            builder.prewarm(1);
+        }
+        try (NSLSolver solver = builder.build()) {
+            long built = System.nanoTime();
+            TurnstileParams params = TurnstileParams.builder()
+                    .siteKey("0x4AAAAAAABkMYinukE8nzY")
+                    .url("https://benchmark.invalid/login")
+                    .build();
+            solver.solveTurnstile(params);
+            long first = System.nanoTime();
+            solver.solveTurnstile(params);
+            long second = System.nanoTime();
+            System.out.printf(Locale.ROOT, "%.3f %.3f %.3f%n",
+                    (built - start) / 1e6, (first - built) / 1e6, (second - first) / 1e6);
+        }
+        System.exit(0);
+    }
+
+    private static void print(String label, List<double[]> samples) {
+        String[] cells = new String[3];
+        for (int column = 0; column < 3; column++) {
+            double[] values = new double[samples.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = samples.get(i)[column];
+            }
+            Arrays.sort(values);
+            cells[column] = String.format(Locale.ROOT, "%.1f / %.1f", values[values.length / 2], values[values.length - 1]);
+        }
+        System.out.printf(Locale.ROOT, "%-9s %5d %14s %14s %14s%n", label, samples.size(), cells[0], cells[1], cells[2]);
+    }
+}
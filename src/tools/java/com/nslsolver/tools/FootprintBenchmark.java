@@ -0,0 +1,100 @@
+package com.nslsolver.tools;
+
+import com.nslsolver.models.ChallengeResult;
+import com.nslsolver.models.KasadaResult;
+import com.nslsolver.models.TurnstileResult;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the retained heap of cached results with JOL: builds many results of each type the way
+ * the client does (every name and value a fresh string, as the JSON parser hands them over, with
+ * realistic cookie, header and token sizes) and walks the object graph. Strings the results share
+ * are counted once, so the per-result figures include what interning saves.
+ *
+ * <pre>
+ * java -cp nslsolver-java.jar:nslsolver-java-tools.jar:jol-core.jar com.nslsolver.tools.FootprintBenchmark \
+ *     --results 1000
+ * </pre>
+ */
+public final class FootprintBenchmark {
+
+    private final RealisticReplies replies = new RealisticReplies();
+
+    public static void main(String[] args) {
+        int results = 1000;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--results")) {
+                    results = Integer.parseInt(args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (results <= 0) {
+                throw new IllegalArgumentException("--results must be positive");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: FootprintBenchmark [--results N]");
+            System.exit(2);
+            return;
+        }
+
+        FootprintBenchmark benchmark = new FootprintBenchmark();
+        System.out.println(VM.current().details());
+        System.out.printf(Locale.ROOT, "%-10s %8s %16s %16s%n", "type", "results", "bytes/result", "objects/result");
+        benchmark.measure("turnstile", results, benchmark::turnstile);
+        benchmark.measure("challenge", results, benchmark::challenge);
+        benchmark.measure("kasada", results, benchmark::kasada);
+    }
+
+    private void measure(String type, int results, IntFunction<Object> factory) {
+        Object[] held = new Object[results];
+        for (int i = 0; i < results; i++) {
+            held[i] = factory.apply(i);
+        }
+        GraphLayout layout = GraphLayout.parseInstance((Object) held);
+        // leave out the array holding them
+        long bytes = layout.totalSize() - VM.current().sizeOf(held);
+        long objects = layout.totalCount() - 1;
+        System.out.printf(Locale.ROOT, "%-10s %8d %16.1f %16.2f%n",
+                type, results, (double) bytes / results, (double) objects / results);
+    }
+
+    private Object turnstile(int i) {
+        Instant solvedAt = Instant.now();
+        return new TurnstileResult(replies.turnstileToken(), fresh("turnstile"), true,
+                solvedAt, Duration.ofMillis(2000 + i), solvedAt.plusSeconds(300));
+    }
+
+    private Object challenge(int i) {
+        Instant solvedAt = Instant.now();
+        return new ChallengeResult(fresh(replies.challengeCookies()), fresh(RealisticReplies.USER_AGENT),
+                fresh("challenge"), true, solvedAt, Duration.ofMillis(4000 + i), solvedAt.plusSeconds(1800));
+    }
+
+    private Object kasada(int i) {
+        Instant solvedAt = Instant.now();
+        return new KasadaResult(fresh(replies.kasadaHeaders()), fresh("kasada"), true,
+                solvedAt, Duration.ofMillis(3000 + i), solvedAt.plusSeconds(600));
+    }
+
+    /** A new copy, as each parsed response has its own strings even for repeated names. */
+    private static String fresh(String s) {
+        return new String(s.toCharArray());
+    }
+
+    private static Map<String, String> fresh(Map<String, String> values) {
+        Map<String, String> copy = new LinkedHashMap<>();
+        values.forEach((name, value) -> copy.put(fresh(name), fresh(value)));
+        return copy;
+    }
+}
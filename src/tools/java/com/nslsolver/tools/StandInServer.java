@@ -0,0 +1,244 @@
+package com.nslsolver.tools;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Local HTTP server speaking enough of the NSLSolver API for performance testing: {@code /solve}
+ * and {@code /balance} with canned bodies. A {@link Script} picks each reply's status and delay.
+ * Delays are served from a scheduler, so thousands of slow replies don't need thousands of threads.
+ *
+ * <p>Like the real API it accepts gzip/deflate request bodies and gzips responses for clients that
+ * advertise it, and counts body bytes as they cross the wire.
+ */
+public final class StandInServer implements Closeable {
+
+    /** Decides how to answer one {@code /solve} or {@code /balance} call. */
+    public interface Script {
+        /** @param request the parsed request body; {@code {"type":"balance"}} for {@code /balance} */
+        Reply reply(JsonObject request);
+    }
+
+    /**
+     * A status and how long to wait before sending it. Status 0 drops the connection instead. The
+     * body defaults to a small canned success or error for the request's type.
+     */
+    public static final class Reply {
+        final int status;
+        final long delayMillis;
+        final String body;
+
+        public Reply(int status, long delayMillis) {
+            this(status, delayMillis, null);
+        }
+
+        public Reply(int status, long delayMillis, String body) {
+            this.status = status;
+            this.delayMillis = delayMillis;
+            this.body = body;
+        }
+
+        public static Reply ok(long delayMillis) {
+            return new Reply(200, delayMillis);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(daemon("standin-http"));
+    private final ScheduledExecutorService delays =
+            Executors.newScheduledThreadPool(4, daemon("standin-delay"));
+    private final Script script;
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private StandInServer(int port, Script script) throws IOException {
+        this.script = script;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/solve", this::solve);
+        server.createContext("/balance", this::balance);
+    }
+
+    /**
+     * Starts on {@code port} (0 for any free port) on the loopback interface.
+     *
+     * <p>Unless it is already set, this sets the JVM-wide {@code sun.net.httpserver.nodelay}
+     * property to {@code true}: without TCP_NODELAY, small replies wait out the client's delayed
+     * ACK, about 40ms per call. The JDK reads it once, so it also applies to any other
+     * {@code com.sun.net.httpserver} server created later in this JVM, and has no effect if one
+     * was created before.
+     */
+    public static StandInServer start(int port, Script script) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        StandInServer standIn = new StandInServer(port, script);
+        standIn.server.start();
+        return standIn;
+    }
+
+    /** The URL to pass to {@code NSLSolver.Builder.baseUrl}. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Request body bytes received so far, as sent (compressed if the client compressed them). */
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /** Response body bytes sent so far, after any compression. */
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        delays.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        JsonObject request;
+        Reply reply;
+        try {
+            byte[] raw = drain(exchange);
+            request = JsonParser.parseString(new String(raw, StandardCharsets.UTF_8)).getAsJsonObject();
+            reply = script.reply(request);
+        } catch (IOException | RuntimeException e) {
+            send(exchange, 400, "{\"error\":\"" + e.getClass().getSimpleName() + "\",\"code\":\"bad_request\"}");
+            return;
+        }
+        respond(exchange, request.has("type") ? request.get("type").getAsString() : "turnstile", reply);
+    }
+
+    private void balance(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        JsonObject request = new JsonObject();
+        request.addProperty("type", "balance");
+        Reply reply;
+        try {
+            reply = script.reply(request);
+        } catch (RuntimeException e) {
+            send(exchange, 400, "{\"error\":\"" + e.getClass().getSimpleName() + "\",\"code\":\"bad_request\"}");
+            return;
+        }
+        respond(exchange, "balance", reply);
+    }
+
+    private void respond(HttpExchange exchange, String type, Reply reply) {
+        Runnable respond = () -> {
+            try {
+                if (reply.status == 0) {
+                    exchange.close(); // no response: the client sees a network error or times out
+                } else if (reply.body != null) {
+                    send(exchange, reply.status, reply.body);
+                } else if (reply.status == 200) {
+                    send(exchange, 200, successBody(type));
+                } else {
+                    send(exchange, reply.status,
+                            "{\"error\":\"stand-in " + reply.status + "\",\"code\":\"standin_" + reply.status + "\"}");
+                }
+            } catch (IOException ignored) {
+                // client gave up
+            }
+        };
+        if (reply.delayMillis > 0) {
+            delays.schedule(respond, reply.delayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            respond.run();
+        }
+    }
+
+    private static String successBody(String type) {
+        switch (type) {
+            case "challenge":
+                return "{\"success\":true,\"type\":\"challenge\",\"cookies\":{\"cf_clearance\":\"standin\"},"
+                        + "\"user_agent\":\"Mozilla/5.0 (stand-in)\"}";
+            case "kasada":
+                return "{\"success\":true,\"type\":\"kasada\",\"headers\":{\"x-kpsdk-ct\":\"standin\","
+                        + "\"x-kpsdk-cd\":\"{}\"}}";
+            case "balance":
+                return "{\"balance\":1000000,\"max_threads\":100000,"
+                        + "\"allowed_types\":[\"turnstile\",\"challenge\",\"kasada\"]}";
+            default:
+                return "{\"success\":true,\"type\":\"turnstile\",\"token\":\"standin\"}";
+        }
+    }
+
+    /** Reads the request body, inflating it according to its {@code Content-Encoding}. */
+    private byte[] drain(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+        bytesReceived.addAndGet(raw.length);
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if (encoding == null) {
+            return raw;
+        }
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+                    return in.readAllBytes();
+                }
+            case "deflate":
+                try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(raw))) {
+                    return in.readAllBytes();
+                }
+            default:
+                return raw;
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.toLowerCase(Locale.ROOT).contains("gzip")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            }
+            bytes = out.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+        bytesSent.addAndGet(bytes.length);
+    }
+
+    static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}